@@ -0,0 +1,75 @@
+/**
+ * Copyright (c) 2010-2018 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.rachio.internal;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * The {@link RachioNetworkBenchmark} measures the AWS address filter of the webhook servlet. The list is generated
+ * in the format of AWS' ip-ranges.json with RANGES /24 ranges in us-* regions (taken over) and as many in other
+ * regions (filtered). hit: the client address is in the last range, miss: the whole list is checked.
+ *
+ * @author Markus Michels (markus7017) - Initial contribution
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(2)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+public class RachioNetworkBenchmark {
+    private static final int RANGES = 2000;
+
+    private final RachioNetwork network = new RachioNetwork();
+    private String hitAddress = "";
+    private String missAddress = "10.1.2.3";
+
+    @Setup
+    public void setup() {
+        StringBuilder json = new StringBuilder("{\"syncToken\":\"1546300800\",\"createDate\":\"2019-01-01-00-00-00\","
+                + "\"prefixes\":[");
+        for (int i = 0; i < RANGES; i++) {
+            addRange(json, "52." + (i / 256) + "." + (i % 256) + ".0/24", "us-east-1");
+            json.append(',');
+            addRange(json, "54." + (i / 256) + "." + (i % 256) + ".0/24", "eu-west-1");
+            json.append(i < RANGES - 1 ? "," : "");
+        }
+        json.append("]}");
+        network.initializeAwsList(json.toString());
+        hitAddress = "52." + ((RANGES - 1) / 256) + "." + ((RANGES - 1) % 256) + ".10";
+    }
+
+    @Benchmark
+    public boolean hit() {
+        return network.isIpInAwsList(hitAddress);
+    }
+
+    @Benchmark
+    public boolean miss() {
+        return network.isIpInAwsList(missAddress);
+    }
+
+    private static void addRange(StringBuilder json, String prefix, String region) {
+        json.append("{\"ip_prefix\":\"").append(prefix).append("\",\"region\":\"").append(region)
+                .append("\",\"service\":\"AMAZON\"}");
+    }
+}
@@ -0,0 +1,141 @@
+/**
+ * Copyright (c) 2010-2018 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.rachio.internal.api;
+
+import java.io.ByteArrayInputStream;
+import java.lang.reflect.Field;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openhab.binding.rachio.internal.api.RachioApi.RachioCloudStatus;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The {@link RachioCopyBenchmark} compares the copy of the cloud attributes of a controller with 16 zones (device +
+ * zones, as done by new RachioDevice() on each poll) before and after the copy constructors were introduced:
+ * reflection (RachioApi.copyMatchingFields(), which was removed, copied here unchanged) and the copy constructors of
+ * RachioCloudDevice and RachioCloudZone.
+ *
+ * @author Markus Michels (markus7017) - Initial contribution
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(2)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+public class RachioCopyBenchmark {
+    private static final Logger logger = LoggerFactory.getLogger(RachioCopyBenchmark.class);
+
+    // the targets of copyMatchingFields() were the subclasses (RachioDevice/RachioZone)
+    private static class CopiedDevice extends RachioCloudDevice {
+    }
+
+    private static class CopiedZone extends RachioCloudZone {
+    }
+
+    private RachioCloudDevice device = new RachioCloudDevice();
+
+    @Setup
+    public void setup() throws Exception {
+        String person = RachioDeviceListBenchmark.createPerson(
+                RachioDeviceListBenchmark.readSample("/rachioapi_json_samples.txt", "device"), 1);
+        RachioApi api = new RachioApi("");
+        RachioCloudStatus status = api.new RachioCloudStatus();
+        api.readCloudStatus(new ByteArrayInputStream(person.getBytes(StandardCharsets.UTF_8)), status);
+        device = status.devices.get(0);
+    }
+
+    @Benchmark
+    public List<Object> reflection() {
+        List<Object> copies = new ArrayList<>(device.zones.size() + 1);
+        CopiedDevice dev = new CopiedDevice();
+        copyMatchingFields(device, dev);
+        copies.add(dev);
+        for (RachioCloudZone zone : device.zones) {
+            CopiedZone z = new CopiedZone();
+            copyMatchingFields(zone, z);
+            copies.add(z);
+        }
+        return copies;
+    }
+
+    @Benchmark
+    public List<Object> copyConstructors() {
+        List<Object> copies = new ArrayList<>(device.zones.size() + 1);
+        copies.add(new RachioCloudDevice(device));
+        for (RachioCloudZone zone : device.zones) {
+            copies.add(new RachioCloudZone(zone));
+        }
+        return copies;
+    }
+
+    @SuppressWarnings({ "rawtypes" })
+    static void copyMatchingFields(Object fromObj, Object toObj) {
+        if (fromObj == null || toObj == null) {
+            throw new NullPointerException("Source and destination objects must be non-null");
+        }
+
+        Class fromClass = fromObj.getClass();
+        Class toClass = toObj.getClass();
+
+        Field[] fields = fromClass.getFields(); // .getDeclaredFields();
+        for (Field f : fields) {
+            try {
+                String fname = f.getName();
+                Field t = toClass.getSuperclass().getDeclaredField(fname);
+
+                if (t.getType() == f.getType()) {
+                    // extend this if to copy more immutable types if interested
+                    if (t.getType() == String.class || t.getType() == int.class || t.getType() == long.class
+                            || t.getType() == double.class || t.getType() == char.class || t.getType() == boolean.class
+                            || t.getType() == Double.class || t.getType() == Integer.class || t.getType() == Long.class
+                            || t.getType() == Character.class || t.getType() == Boolean.class) {
+                        f.setAccessible(true);
+                        t.setAccessible(true);
+                        t.set(toObj, f.get(fromObj));
+                    } else if (t.getType() == Date.class) {
+                        // dates are not immutable, so clone non-null dates into the destination object
+                        Date d = (Date) f.get(fromObj);
+                        f.setAccessible(true);
+                        t.setAccessible(true);
+                        t.set(toObj, d != null ? d.clone() : null);
+                    } else if (t.getType() == java.util.ArrayList.class) {
+                        ArrayList a = (ArrayList) f.get(fromObj);
+                        f.setAccessible(true);
+                        t.setAccessible(true);
+                        t.set(toObj, a != null ? a.clone() : null);
+                    } else {
+                        logger.debug("RachioApiInternal: Unable to update field '{}', '{}'", t.getName(), t.getType());
+                    }
+                }
+            } catch (NoSuchFieldException ex) {
+                // skip it
+            } catch (IllegalAccessException ex) {
+                logger.error("Unable to copy field: {}", f.getName());
+            }
+        }
+    }
+}
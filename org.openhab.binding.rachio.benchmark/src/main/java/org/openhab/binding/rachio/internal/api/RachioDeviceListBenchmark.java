@@ -0,0 +1,180 @@
+/**
+ * Copyright (c) 2010-2018 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.rachio.internal.api;
+
+import static org.openhab.binding.rachio.RachioBindingConstants.*;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.smarthome.core.thing.ThingUID;
+import org.openhab.binding.rachio.internal.api.RachioApi.RachioCloudStatus;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+/**
+ * The {@link RachioDeviceListBenchmark} measures the device list handling for a person/{id} payload with 1 or 50
+ * controllers of 16 zones, generated from the device sample in rachioapi_json_samples.txt (incl. schedule rules):
+ * parsing (readCloudStatus), creating the device and zone objects (copy constructors) and getZoneByUID() for the zone
+ * visited last.
+ *
+ * @author Markus Michels (markus7017) - Initial contribution
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(2)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+public class RachioDeviceListBenchmark {
+    private static final String SAMPLES = "/rachioapi_json_samples.txt";
+    private static final int ZONES = 16;
+
+    @Param({ "1", "50" })
+    public int controllers;
+
+    private final RachioApi api = new RachioApi("");
+    private byte[] person = new byte[0];
+    private List<RachioCloudDevice> cloudDevices;
+    private ThingUID bridgeUID;
+    private ThingUID lastZoneUID;
+
+    @Setup
+    public void setup() throws IOException {
+        person = createPerson(readSample(SAMPLES, "device"), controllers).getBytes(StandardCharsets.UTF_8);
+        RachioCloudStatus status = parse();
+        cloudDevices = status.devices;
+        api.applyCloudStatus(status);
+
+        // assign thing UIDs like the bridge handler
+        bridgeUID = new ThingUID(BINDING_ID, "cloud", "benchmark");
+        for (RachioDevice dev : api.getDevices().values()) {
+            ThingUID devThingUID = new ThingUID(THING_TYPE_DEVICE, bridgeUID, dev.getThingID());
+            dev.setUID(bridgeUID, devThingUID);
+            for (RachioZone zone : dev.getZones().values()) {
+                lastZoneUID = new ThingUID(THING_TYPE_ZONE, bridgeUID, zone.getThingID());
+                zone.setUID(devThingUID, lastZoneUID);
+            }
+        }
+    }
+
+    @Benchmark
+    public RachioCloudStatus parse() throws IOException {
+        RachioCloudStatus status = api.new RachioCloudStatus();
+        api.readCloudStatus(new ByteArrayInputStream(person), status);
+        return status;
+    }
+
+    @Benchmark
+    public HashMap<String, RachioDevice> createDevices() {
+        return api.createDevices(cloudDevices);
+    }
+
+    @Benchmark
+    public RachioZone getZoneByUID() {
+        return api.getZoneByUID(bridgeUID, lastZoneUID);
+    }
+
+    /**
+     * Build a person/{id} result with the given number of controllers, each with ZONES zones
+     *
+     * @param device JSON of a single device
+     * @param controllers Number of controllers
+     */
+    static String createPerson(String device, int controllers) {
+        JsonParser parser = new JsonParser();
+        JsonArray devices = new JsonArray();
+        for (int d = 0; d < controllers; d++) {
+            JsonObject dev = parser.parse(device).getAsJsonObject();
+            dev.addProperty("id", "device-" + d);
+            dev.addProperty("name", "Controller " + d);
+            dev.addProperty("serialNumber", String.format("VR%07d", d));
+            dev.addProperty("macAddress", String.format("74C63B%06X", d));
+            JsonArray sampleZones = dev.getAsJsonArray("zones");
+            JsonArray zones = new JsonArray();
+            for (int z = 0; z < ZONES; z++) {
+                JsonObject zone = parser.parse(sampleZones.get(z % sampleZones.size()).toString()).getAsJsonObject();
+                zone.addProperty("id", "zone-" + d + "-" + z);
+                zone.addProperty("zoneNumber", z + 1);
+                zone.addProperty("name", "Zone " + (z + 1));
+                zones.add(zone);
+            }
+            dev.add("zones", zones);
+            devices.add(dev);
+        }
+
+        JsonObject person = new JsonObject();
+        person.addProperty("id", "person-1");
+        person.addProperty("username", "benchmark");
+        person.addProperty("fullName", "Benchmark");
+        person.addProperty("email", "benchmark@example.com");
+        person.addProperty("createDate", 1494626927000L);
+        person.add("devices", devices);
+        person.addProperty("deleted", false);
+        return person.toString();
+    }
+
+    /**
+     * Read a sample from a samples file: "// title" starts a sample, lines starting with '#' are comments
+     *
+     * @param resource Resource name
+     * @param title Title of the sample
+     * @return JSON
+     */
+    static String readSample(String resource, String title) throws IOException {
+        try (InputStream in = RachioDeviceListBenchmark.class.getResourceAsStream(resource)) {
+            if (in == null) {
+                throw new IOException("Missing resource " + resource);
+            }
+            BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+            StringBuilder json = new StringBuilder();
+            boolean found = false;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.startsWith("#")) {
+                    continue;
+                }
+                if (line.startsWith("//")) {
+                    if (found) {
+                        break;
+                    }
+                    found = line.substring(2).trim().equals(title);
+                } else if (found) {
+                    json.append(line).append('\n');
+                }
+            }
+            if (!found) {
+                throw new IOException("Sample '" + title + "' not found in " + resource);
+            }
+            return json.toString();
+        }
+    }
+}
@@ -0,0 +1,117 @@
+/**
+ * Copyright (c) 2010-2018 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.rachio.internal.api;
+
+import static org.openhab.binding.rachio.RachioBindingConstants.RACHIO_WEBHOOK_MAX_BODY;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Scanner;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.google.gson.Gson;
+
+/**
+ * The {@link RachioWebHookBenchmark} measures the webhook parsing for the bodies in webhook_events.txt (one body per
+ * call, round robin): the String.replace() chain and plain Gson used before, RachioEventDecoder (routing fields only,
+ * servlet thread) and RachioEventDecoder + RachioEvent.decode() (event consumed by a thing handler). formatEvent
+ * covers RachioEventString.toJson() for a ZONE_STATUS event.
+ *
+ * @author Markus Michels (markus7017) - Initial contribution
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(2)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+public class RachioWebHookBenchmark {
+    private static final String EVENTS = "/webhook_events.txt";
+
+    private final Gson gson = new Gson(); // legacy: the servlet used a plain Gson before RachioJsonCodec
+    private List<byte[]> bodies = new ArrayList<>();
+    private RachioEvent zoneEvent;
+    private int next = 0;
+
+    @Setup
+    public void setup() throws IOException {
+        try (InputStream in = RachioWebHookBenchmark.class.getResourceAsStream(EVENTS)) {
+            if (in == null) {
+                throw new IOException("Missing resource " + EVENTS);
+            }
+            BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (!line.isEmpty() && !line.startsWith("#")) {
+                    bodies.add(line.getBytes(StandardCharsets.UTF_8));
+                }
+            }
+        }
+        zoneEvent = decodeHeaderAndDecode(bodies.get(bodies.size() - 1));
+    }
+
+    @Benchmark
+    public RachioEvent legacy() {
+        @SuppressWarnings("resource")
+        Scanner scanner = new Scanner(new ByteArrayInputStream(nextBody()), "UTF-8").useDelimiter("\\A");
+        String data = scanner.hasNext() ? scanner.next() : "";
+        data = data.replace("\"{", "{");
+        data = data.replace("}\"", "}");
+        data = data.replace("\\", "");
+        data = data.replace("\"?\"", "'?'");
+        return gson.fromJson(data, RachioEvent.class);
+    }
+
+    @Benchmark
+    public RachioEvent decodeHeader() {
+        return new RachioEventDecoder(new ByteArrayInputStream(nextBody()), RACHIO_WEBHOOK_MAX_BODY).decodeHeader();
+    }
+
+    @Benchmark
+    public RachioEvent decodeHeaderAndDecode() {
+        return decodeHeaderAndDecode(nextBody());
+    }
+
+    @Benchmark
+    public String formatEvent() {
+        return new RachioEventString(zoneEvent).toJson();
+    }
+
+    private static RachioEvent decodeHeaderAndDecode(byte[] body) {
+        RachioEvent event = new RachioEventDecoder(new ByteArrayInputStream(body), RACHIO_WEBHOOK_MAX_BODY)
+                .decodeHeader();
+        event.decode();
+        return event;
+    }
+
+    private byte[] nextBody() {
+        byte[] body = bodies.get(next);
+        next = (next + 1) % bodies.size();
+        return body;
+    }
+}
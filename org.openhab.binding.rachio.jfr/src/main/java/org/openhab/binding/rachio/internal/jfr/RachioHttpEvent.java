@@ -0,0 +1,64 @@
+/**
+ * Copyright (c) 2010-2018 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.rachio.internal.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * The {@link RachioHttpEvent} is a Flight Recorder event for a single request to the Rachio cloud (each retry is a
+ * separate event).
+ *
+ * @author Markus Michels (markus7017) - Initial contribution
+ */
+@Name(RachioFlightRecorder.EVENT_PREFIX + "HttpRequest")
+@Label("Rachio Cloud Request")
+@Category({ "openHAB", "Rachio" })
+@Description("Request sent to the Rachio cloud api")
+@StackTrace(false)
+class RachioHttpEvent extends Event {
+    @Label("Method")
+    String method;
+
+    @Label("Endpoint")
+    @Description("Request path, device and zone ids are masked")
+    String endpoint;
+
+    @Label("Status")
+    @Description("Http response code, 0=no response")
+    int status;
+
+    @Label("Response Size")
+    @DataAmount
+    long bytes;
+
+    @Label("Remaining API Calls")
+    @Description("Value of the X-RateLimit-Remaining header, -1 if not returned")
+    int rateRemaining;
+
+    static void commit(Object handle, String method, String endpoint, int status, long bytes, int rateRemaining) {
+        RachioHttpEvent event = (RachioHttpEvent) handle;
+        event.end();
+        if (event.shouldCommit()) {
+            event.method = method;
+            event.endpoint = endpoint;
+            event.status = status;
+            event.bytes = bytes;
+            event.rateRemaining = rateRemaining;
+            event.commit();
+        }
+    }
+}
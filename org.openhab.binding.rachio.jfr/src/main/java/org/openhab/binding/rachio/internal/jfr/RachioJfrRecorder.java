@@ -0,0 +1,67 @@
+/**
+ * Copyright (c) 2010-2018 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.rachio.internal.jfr;
+
+import org.openhab.binding.rachio.internal.jfr.RachioFlightRecorder.RachioEventRecorder;
+
+import jdk.jfr.Event;
+import jdk.jfr.EventType;
+
+/**
+ * The {@link RachioJfrRecorder} creates the Flight Recorder events of the binding. It gets loaded by
+ * {@link RachioFlightRecorder} when this fragment is attached to the binding. The event types are looked up once, an
+ * event is only allocated if it is enabled in the running recording.
+ *
+ * @author Markus Michels (markus7017) - Initial contribution
+ */
+public class RachioJfrRecorder implements RachioEventRecorder {
+    private static final EventType HTTP_REQUEST = EventType.getEventType(RachioHttpEvent.class);
+    private static final EventType POLL_CYCLE = EventType.getEventType(RachioPollEvent.class);
+    private static final EventType WEBHOOK = EventType.getEventType(RachioWebHookEvent.class);
+
+    @Override
+    public Object beginHttpRequest() {
+        return HTTP_REQUEST.isEnabled() ? begin(new RachioHttpEvent()) : null;
+    }
+
+    @Override
+    public void commitHttpRequest(Object event, String method, String endpoint, int status, long bytes,
+            int rateRemaining) {
+        RachioHttpEvent.commit(event, method, endpoint, status, bytes, rateRemaining);
+    }
+
+    @Override
+    public Object beginPoll() {
+        return POLL_CYCLE.isEnabled() ? begin(new RachioPollEvent()) : null;
+    }
+
+    @Override
+    public void commitPoll(Object event, String bridge, int devices, int zones, int changes) {
+        RachioPollEvent.commit(event, bridge, devices, zones, changes);
+    }
+
+    @Override
+    public Object beginWebHook() {
+        return WEBHOOK.isEnabled() ? begin(new RachioWebHookEvent()) : null;
+    }
+
+    @Override
+    public void commitWebHook(Object event, String eventType, String deviceId, boolean routed, long parseNanos,
+            long routingNanos, long queueNanos, long handlerNanos) {
+        RachioWebHookEvent.commit(event, eventType, deviceId, routed, parseNanos, routingNanos, queueNanos,
+                handlerNanos);
+    }
+
+    private static Event begin(Event event) {
+        event.begin();
+        return event;
+    }
+}
@@ -0,0 +1,57 @@
+/**
+ * Copyright (c) 2010-2018 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.rachio.internal.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * The {@link RachioPollEvent} is a Flight Recorder event for a poll cycle of a bridge.
+ *
+ * @author Markus Michels (markus7017) - Initial contribution
+ */
+@Name(RachioFlightRecorder.EVENT_PREFIX + "PollCycle")
+@Label("Rachio Poll Cycle")
+@Category({ "openHAB", "Rachio" })
+@Description("Device status poll of a Rachio bridge")
+@StackTrace(false)
+class RachioPollEvent extends Event {
+    @Label("Bridge")
+    String bridge;
+
+    @Label("Devices")
+    @Description("Number of devices compared with the cloud data")
+    int devices;
+
+    @Label("Zones")
+    @Description("Number of zones compared with the cloud data")
+    int zones;
+
+    @Label("Changes")
+    @Description("Number of devices and zones, which have been updated")
+    int changes;
+
+    static void commit(Object handle, String bridge, int devices, int zones, int changes) {
+        RachioPollEvent event = (RachioPollEvent) handle;
+        event.end();
+        if (event.shouldCommit()) {
+            event.bridge = bridge;
+            event.devices = devices;
+            event.zones = zones;
+            event.changes = changes;
+            event.commit();
+        }
+    }
+}
@@ -0,0 +1,75 @@
+/**
+ * Copyright (c) 2010-2018 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.rachio.internal.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * The {@link RachioWebHookEvent} is a Flight Recorder event for an inbound webhook request, split into parsing, routing
+ * to the bridge, waiting in the bridge's event queue and processing by the thing handler.
+ *
+ * @author Markus Michels (markus7017) - Initial contribution
+ */
+@Name(RachioFlightRecorder.EVENT_PREFIX + "WebHook")
+@Label("Rachio Webhook Event")
+@Category({ "openHAB", "Rachio" })
+@Description("Inbound webhook event from the Rachio cloud")
+@StackTrace(false)
+class RachioWebHookEvent extends Event {
+    @Label("Event Type")
+    String eventType;
+
+    @Label("Device Id")
+    String deviceId;
+
+    @Label("Routed")
+    @Description("true: event was processed by a thing handler")
+    boolean routed;
+
+    @Label("Parse Time")
+    @Timespan
+    long parseTime;
+
+    @Label("Routing Time")
+    @Timespan
+    long routingTime;
+
+    @Label("Queue Time")
+    @Timespan
+    long queueTime;
+
+    @Label("Handler Time")
+    @Description("Time spent in the thing handler incl. channel updates")
+    @Timespan
+    long handlerTime;
+
+    static void commit(Object handle, String eventType, String deviceId, boolean routed, long parseNanos,
+            long routingNanos, long queueNanos, long handlerNanos) {
+        RachioWebHookEvent event = (RachioWebHookEvent) handle;
+        event.end();
+        if (event.shouldCommit()) {
+            event.eventType = eventType;
+            event.deviceId = deviceId;
+            event.routed = routed;
+            event.parseTime = parseNanos;
+            event.routingTime = routingNanos;
+            event.queueTime = queueNanos;
+            event.handlerTime = handlerNanos;
+            event.commit();
+        }
+    }
+}
@@ -0,0 +1,108 @@
+/**
+ * Copyright (c) 2010-2018 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.rachio.internal.api;
+
+import static org.junit.Assert.*;
+import static org.openhab.binding.rachio.internal.api.RachioCommandQueue.*;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Test;
+import org.openhab.binding.rachio.internal.api.RachioApi.RachioApiResult;
+
+/**
+ * Tests the {@link RachioCommandQueue}: commands of a device are sent in order, a command only replaces the last queued
+ * one of the same type and a stop drops the queued zone starts without reporting them as sent.
+ *
+ * @author Markus Michels (markus7017) - Initial contribution
+ */
+public class RachioCommandQueueTest {
+    private static final String DEVICE = "device-1";
+
+    private final ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(1);
+    private final RachioCommandQueue queue = new RachioCommandQueue(scheduler);
+    private final List<String> sent = Collections.synchronizedList(new ArrayList<>());
+    private final CountDownLatch blocked = new CountDownLatch(1);
+
+    @After
+    public void tearDown() {
+        blocked.countDown();
+        queue.dispose();
+        scheduler.shutdownNow();
+    }
+
+    private CompletableFuture<RachioApiResult> submit(String type, String name) {
+        return queue.submit(DEVICE, type, () -> {
+            sent.add(name);
+            return new RachioApiResult();
+        });
+    }
+
+    // keeps the queue busy, so the following commands are queued
+    private CompletableFuture<RachioApiResult> block() {
+        return queue.submit("device-0", CMD_RAIN_DELAY, () -> {
+            try {
+                blocked.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return new RachioApiResult();
+        });
+    }
+
+    @Test
+    public void testOrder() throws Exception {
+        block();
+        submit(CMD_ACTIVE, "on");
+        submit(CMD_RUN, "run");
+        CompletableFuture<RachioApiResult> off = submit(CMD_ACTIVE, "off");
+        blocked.countDown();
+        off.get(5, TimeUnit.SECONDS);
+        assertEquals("[on, run, off]", sent.toString());
+    }
+
+    @Test
+    public void testSupersede() throws Exception {
+        block();
+        CompletableFuture<RachioApiResult> on = submit(CMD_ACTIVE, "on");
+        CompletableFuture<RachioApiResult> off = submit(CMD_ACTIVE, "off");
+        assertSame(on, off);
+        blocked.countDown();
+        off.get(5, TimeUnit.SECONDS);
+        assertEquals("[off]", sent.toString());
+    }
+
+    @Test
+    public void testStopDropsRun() throws Exception {
+        block();
+        CompletableFuture<RachioApiResult> run = submit(CMD_RUN, "run");
+        CompletableFuture<RachioApiResult> stop = submit(CMD_STOP, "stop");
+        blocked.countDown();
+        stop.get(5, TimeUnit.SECONDS);
+        assertEquals("[stop]", sent.toString());
+        try {
+            run.get(5, TimeUnit.SECONDS);
+            fail("dropped zone start completed normally");
+        } catch (ExecutionException | CancellationException e) {
+            assertTrue(RachioApiException.isSuperseded(e.getCause() != null ? e.getCause() : e));
+        }
+    }
+}
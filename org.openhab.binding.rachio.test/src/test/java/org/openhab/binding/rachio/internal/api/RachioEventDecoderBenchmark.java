@@ -0,0 +1,92 @@
+/**
+ * Copyright (c) 2010-2018 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.rachio.internal.api;
+
+import java.io.ByteArrayInputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.lang.reflect.Method;
+import java.util.List;
+
+/**
+ * The {@link RachioEventDecoderBenchmark} measures the webhook parsing (time and allocated bytes per event) for the
+ * bodies in webhook_events.txt: the String.replace() chain used before, RachioEventDecoder (routing fields only) and
+ * RachioEventDecoder + RachioEvent.decode(). See DevNotes.md for the results.
+ *
+ * Run it with the test classes, the binding classes, gson and slf4j-api on the classpath:
+ * java org.openhab.binding.rachio.internal.api.RachioEventDecoderBenchmark [events per round] [rounds]
+ *
+ * @author Markus Michels (markus7017) - Initial contribution
+ */
+public class RachioEventDecoderBenchmark {
+    private static final int MAX_BODY = 64 * 1024;
+    private static final String[] VARIANTS = { "Scanner + String.replace() + Gson.fromJson()",
+            "RachioEventDecoder.decodeHeader()", "RachioEventDecoder.decodeHeader() + RachioEvent.decode()" };
+
+    public static void main(String[] args) throws Exception {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 200000;
+        int rounds = args.length > 1 ? Integer.parseInt(args[1]) : 6;
+        List<byte[]> bodies = RachioEventDecoderTest.readBodies("/webhook_events.txt");
+        Method allocatedBytes = getAllocatedBytesMethod();
+
+        // the first half of the rounds is warm-up
+        for (int round = 0; round < rounds; round++) {
+            for (int variant = 0; variant < VARIANTS.length; variant++) {
+                long allocated = allocatedBytes(allocatedBytes);
+                long started = System.nanoTime();
+                int check = 0;
+                for (int i = 0; i < count; i++) {
+                    check += decode(variant, bodies.get(i % bodies.size())).type.length();
+                }
+                long nanos = System.nanoTime() - started;
+                allocated = allocatedBytes(allocatedBytes) - allocated;
+                if (round >= rounds / 2) {
+                    System.out.printf("%-58s %6.2f us/event %6.1f KB/event (%d)%n", VARIANTS[variant],
+                            nanos / 1000.0 / count, allocated / 1024.0 / count, check);
+                }
+            }
+        }
+    }
+
+    private static RachioEvent decode(int variant, byte[] body) {
+        switch (variant) {
+            case 0:
+                return RachioEventDecoderTest.legacyDecode(body);
+            case 1:
+                return new RachioEventDecoder(new ByteArrayInputStream(body), MAX_BODY).decodeHeader();
+            default:
+                return RachioEventDecoderTest.decode(body);
+        }
+    }
+
+    /**
+     * @return com.sun.management.ThreadMXBean.getThreadAllocatedBytes(), null if the JVM doesn't support it
+     */
+    private static Method getAllocatedBytesMethod() {
+        try {
+            return Class.forName("com.sun.management.ThreadMXBean").getMethod("getThreadAllocatedBytes", long.class);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    private static long allocatedBytes(Method method) {
+        if (method == null) {
+            return 0;
+        }
+        try {
+            ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+            return (Long) method.invoke(bean, Thread.currentThread().getId());
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,198 @@
+/**
+ * Copyright (c) 2010-2018 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.rachio.internal.api;
+
+import static org.junit.Assert.*;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Scanner;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+
+/**
+ * Tests the {@link RachioEventDecoder} against the String.replace() chain used before: the sanitized JSON and the
+ * decoded event must be the same for the webhook bodies in webhook_events.txt. The UTF-8 decoding is checked with
+ * multi-byte characters split across reads and invalid sequences.
+ *
+ * @author Markus Michels (markus7017) - Initial contribution
+ */
+public class RachioEventDecoderTest {
+    private static final String EVENTS = "/webhook_events.txt";
+    private static final int MAX_BODY = 64 * 1024;
+    private static final Gson LEGACY_GSON = new Gson(); // the servlet used a plain Gson before RachioJsonCodec
+
+    private static List<byte[]> bodies = new ArrayList<>();
+    private final Gson reflective = new Gson();
+
+    @BeforeClass
+    public static void loadEvents() throws IOException {
+        bodies = readBodies(EVENTS);
+    }
+
+    /**
+     * Read webhook bodies, one per line, lines starting with '#' are comments
+     *
+     * @param resource Resource name
+     * @return request bodies (UTF-8)
+     */
+    static List<byte[]> readBodies(String resource) throws IOException {
+        List<byte[]> result = new ArrayList<>();
+        try (InputStream in = RachioEventDecoderTest.class.getResourceAsStream(resource)) {
+            if (in == null) {
+                throw new IOException("Missing test resource " + resource);
+            }
+            BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (!line.isEmpty() && !line.startsWith("#")) {
+                    result.add(line.getBytes(StandardCharsets.UTF_8));
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Sanitize the body like the servlet did before RachioEventDecoder was introduced
+     *
+     * @param body Request body
+     * @return JSON
+     */
+    static String legacySanitize(byte[] body) {
+        @SuppressWarnings("resource")
+        Scanner scanner = new Scanner(new ByteArrayInputStream(body), "UTF-8").useDelimiter("\\A");
+        String data = scanner.hasNext() ? scanner.next() : "";
+        data = data.replace("\"{", "{");
+        data = data.replace("}\"", "}");
+        data = data.replace("\\", "");
+        data = data.replace("\"?\"", "'?'");
+        return data;
+    }
+
+    /**
+     * Parse the body like the servlet did before (reflective Gson instance)
+     *
+     * @param body Request body
+     * @return event
+     */
+    static RachioEvent legacyDecode(byte[] body) {
+        return LEGACY_GSON.fromJson(legacySanitize(body), RachioEvent.class);
+    }
+
+    /**
+     * Decode the body like the servlet does (routing fields), then the full event like the bridge does
+     */
+    static RachioEvent decode(byte[] body) {
+        RachioEvent event = new RachioEventDecoder(new ByteArrayInputStream(body), MAX_BODY).decodeHeader();
+        if (event != null) {
+            event.decode();
+        }
+        return event;
+    }
+
+    @Test
+    public void testSameAsLegacy() {
+        assertEquals(9, bodies.size());
+        for (byte[] body : bodies) {
+            String legacy = legacySanitize(body);
+            RachioEventDecoder decoder = new RachioEventDecoder(new ByteArrayInputStream(body), MAX_BODY);
+            RachioEvent event = decoder.decodeHeader();
+            assertNotNull(legacy, event);
+            assertEquals(legacy, decoder.getData());
+
+            event.decode();
+            assertEquals(legacy, reflective.toJson(legacyDecode(body)), reflective.toJson(event));
+        }
+    }
+
+    @Test
+    public void testNestedObjects() {
+        RachioEvent event = decode(bodies.get(7)); // DEVICE_COLD_REBOOT_EVENT
+        assertEquals("COLD_REBOOT", event.subType);
+        assertEquals("192.168.x.1", event.network.dns1);
+        assertTrue(event.summary, event.summary.contains("tap '?' above"));
+
+        event = decode(bodies.get(8));
+        assertEquals("COMPLETED", event.zoneRunStatus.state);
+        assertEquals(Integer.valueOf(3), event.zoneRunStatus.zoneNumber);
+    }
+
+    @Test
+    public void testUtf8() {
+        RachioEvent event = decode(bodies.get(8));
+        assertEquals("Vorgärten – Ωmega 🌧 completed watering for 2 minutes.", event.summary);
+    }
+
+    @Test
+    public void testUtf8SplitReads() throws IOException {
+        // 2, 3 and 4 byte sequences, the 4 byte one is returned as surrogate pair
+        String text = "ä€🌧x\"?\"\\\"{\"a\":1}\"";
+        String expected = "ä€🌧x'?'{\"a\":1}";
+        for (int size = 1; size <= 4; size++) {
+            RachioEventDecoder decoder = new RachioEventDecoder(
+                    new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8)), MAX_BODY);
+            char[] buffer = new char[size];
+            StringBuilder result = new StringBuilder();
+            int n;
+            while ((n = decoder.read(buffer, 0, size)) > 0) {
+                result.append(buffer, 0, n);
+            }
+            assertEquals("read size " + size, expected, result.toString());
+            assertEquals(expected, decoder.getData());
+        }
+    }
+
+    @Test
+    public void testInvalidUtf8() throws IOException {
+        // truncated 3 byte sequence followed by ASCII, lone continuation byte, truncated sequence at EOF
+        byte[] body = { 'a', (byte) 0xe2, (byte) 0x82, 'b', (byte) 0x80, 'c', (byte) 0xf0, (byte) 0x9f };
+        RachioEventDecoder decoder = new RachioEventDecoder(new ByteArrayInputStream(body), MAX_BODY);
+        char[] buffer = new char[16];
+        int n = decoder.read(buffer, 0, buffer.length);
+        assertEquals("a�b�c�", new String(buffer, 0, n));
+    }
+
+    @Test
+    public void testEmptyBody() {
+        assertNull(new RachioEventDecoder(new ByteArrayInputStream(new byte[0]), MAX_BODY).decodeHeader());
+    }
+
+    @Test
+    public void testTooLarge() {
+        byte[] body = new byte[MAX_BODY + 1];
+        Arrays.fill(body, (byte) ' ');
+        body[0] = '{';
+        RachioEventDecoder decoder = new RachioEventDecoder(new ByteArrayInputStream(body), MAX_BODY);
+        try {
+            decoder.decodeHeader();
+            fail("body exceeds the limit");
+        } catch (JsonParseException e) {
+            assertTrue(decoder.isTooLarge());
+        }
+
+        // limit is not exceeded
+        RachioEventDecoder small = new RachioEventDecoder(new ByteArrayInputStream(bodies.get(0)), MAX_BODY);
+        assertNotNull(small.decodeHeader());
+        assertFalse(small.isTooLarge());
+    }
+}
@@ -0,0 +1,52 @@
+/**
+ * Copyright (c) 2010-2018 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.rachio.internal.api;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+/**
+ * Tests the {@link RachioEventDedup}: redeliveries are detected by id or sequence, the keys of an event, which was
+ * not queued, are removed again.
+ *
+ * @author Markus Michels (markus7017) - Initial contribution
+ */
+public class RachioEventDedupTest {
+    private final RachioEventDedup dedup = new RachioEventDedup(100, 60);
+
+    private static RachioEvent event(String id, int sequence) {
+        RachioEvent event = new RachioEvent();
+        event.id = id;
+        event.deviceId = "device-1";
+        event.type = "ZONE_STATUS";
+        event.sequence = sequence;
+        return event;
+    }
+
+    @Test
+    public void testDuplicate() {
+        assertFalse(dedup.isDuplicate(event("a", 1)));
+        assertTrue(dedup.isDuplicate(event("a", 1)));
+        assertTrue("same id", dedup.isDuplicate(event("a", 2)));
+        assertTrue("same sequence", dedup.isDuplicate(event("b", 1)));
+        assertFalse(dedup.isDuplicate(event("c", 3)));
+    }
+
+    @Test
+    public void testRemove() {
+        RachioEvent event = event("a", 1);
+        assertFalse(dedup.isDuplicate(event));
+        dedup.remove(event); // e.g. queue full
+        assertFalse("redelivery after remove", dedup.isDuplicate(event("a", 1)));
+        assertTrue(dedup.isDuplicate(event("a", 1)));
+    }
+}
@@ -0,0 +1,183 @@
+/**
+ * Copyright (c) 2010-2018 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.rachio.internal.api;
+
+import static org.junit.Assert.*;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.openhab.binding.rachio.internal.api.RachioApi.RachioApiWebHookEntry;
+
+import com.google.gson.Gson;
+import com.google.gson.stream.JsonReader;
+
+/**
+ * Round-trip tests of the {@link RachioJsonCodec} adapters with the samples from rachioapi_json_samples.txt. The
+ * hand-written adapters must decode the same values as the Gson reflective adapters, which were used before, and
+ * encoding a decoded object must give the same object again.
+ *
+ * @author Markus Michels (markus7017) - Initial contribution
+ */
+public class RachioJsonCodecTest {
+    private static final String SAMPLES = "/rachioapi_json_samples.txt";
+
+    private static Map<String, String> samples = new LinkedHashMap<>();
+    private final Gson reflective = new Gson();
+
+    @BeforeClass
+    public static void loadSamples() throws IOException {
+        samples = readSamples(SAMPLES);
+    }
+
+    /**
+     * Read a samples file: "// title" starts a sample, lines starting with '#' are comments
+     *
+     * @param resource Resource name
+     * @return title -> JSON
+     */
+    static Map<String, String> readSamples(String resource) throws IOException {
+        Map<String, String> result = new LinkedHashMap<>();
+        try (InputStream in = RachioJsonCodecTest.class.getResourceAsStream(resource)) {
+            assertNotNull("Missing test resource " + resource, in);
+            BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+            String title = null;
+            StringBuilder json = new StringBuilder();
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.startsWith("#")) {
+                    continue;
+                }
+                if (line.startsWith("//")) {
+                    if (title != null) {
+                        result.put(title, json.toString().trim());
+                    }
+                    title = line.substring(2).trim();
+                    json.setLength(0);
+                } else {
+                    json.append(line).append('\n');
+                }
+            }
+            if (title != null) {
+                result.put(title, json.toString().trim());
+            }
+        }
+        return result;
+    }
+
+    @Test
+    public void testDeviceRoundTrip() {
+        String json = samples.get("device");
+        RachioCloudDevice device = RachioJsonCodec.fromJson(json, RachioCloudDevice.class);
+        assertEquals("Rachio Turtle Pine House", device.name);
+        assertEquals("VR0XXXXXX", device.serialNumber);
+        assertEquals(8, device.zones.size());
+        assertEquals("Zone 2 - Pool Front", device.zones.get(0).name);
+        assertEquals(1518420166652L, device.zones.get(0).lastWateredDate);
+
+        // scheduleRules/flexScheduleRules are not used by the binding and skipped by the adapter
+        RachioCloudDevice expected = reflective.fromJson(json, RachioCloudDevice.class);
+        expected.scheduleRules.clear();
+        expected.flexScheduleRules.clear();
+        assertEquals(reflective.toJson(expected), reflective.toJson(device));
+
+        assertRoundTrip(device, RachioCloudDevice.class);
+    }
+
+    @Test
+    public void testEventRoundTrip() {
+        int count = 0;
+        for (Map.Entry<String, String> sample : samples.entrySet()) {
+            if (!sample.getKey().startsWith("event ")) {
+                continue;
+            }
+            String json = sample.getValue();
+            RachioEvent event = RachioJsonCodec.fromJson(json, RachioEvent.class);
+            assertFalse(sample.getKey(), event.type.isEmpty());
+            assertEquals(sample.getKey(), reflective.toJson(reflective.fromJson(json, RachioEvent.class)),
+                    reflective.toJson(event));
+            assertRoundTrip(event, RachioEvent.class);
+            count++;
+        }
+        assertEquals(11, count);
+    }
+
+    @Test
+    public void testEventValues() {
+        RachioEvent event = RachioJsonCodec.fromJson(samples.get("event ZONE_STARTED"), RachioEvent.class);
+        assertEquals("ZONE_STATUS", event.type);
+        assertEquals("ZONE_STARTED", event.subType);
+        assertEquals(486, event.sequence);
+        assertEquals("2018-03-25T19:08:30Z", event.timestamp);
+        assertEquals("STARTED", event.zoneRunStatus.state);
+        assertEquals(Integer.valueOf(120), event.zoneRunStatus.duration);
+
+        event = RachioJsonCodec.fromJson(samples.get("event DEVICE_STATUS"), RachioEvent.class);
+        assertEquals("ONLINE", event.subType);
+        assertEquals("192.168.x.y", event.network.ip);
+        assertEquals("-53", event.network.rssi);
+    }
+
+    @Test
+    public void testEventHeader() {
+        for (Map.Entry<String, String> sample : samples.entrySet()) {
+            if (!sample.getKey().startsWith("event ")) {
+                continue;
+            }
+            RachioEvent event = RachioJsonCodec.fromJson(sample.getValue(), RachioEvent.class);
+            RachioEvent header = RachioJsonCodec.readEventHeader(new JsonReader(new StringReader(sample.getValue())));
+            assertNotNull(sample.getKey(), header);
+            assertEquals(sample.getKey(), event.externalId, header.externalId);
+            assertEquals(sample.getKey(), event.deviceId, header.deviceId);
+            assertEquals(sample.getKey(), event.type, header.type);
+            assertEquals(sample.getKey(), event.subType, header.subType);
+            assertEquals(sample.getKey(), event.id, header.id);
+            assertEquals(sample.getKey(), event.sequence, header.sequence);
+            assertEquals(sample.getKey(), event.timestamp, header.timestamp);
+            assertEquals(sample.getKey(), event.eventDate, header.eventDate);
+
+            // the full decode fills the same instance
+            RachioJsonCodec.readEvent(sample.getValue(), header);
+            assertEquals(sample.getKey(), reflective.toJson(event), reflective.toJson(header));
+        }
+        assertNull(RachioJsonCodec.readEventHeader(new JsonReader(new StringReader(""))));
+    }
+
+    @Test
+    public void testWebHookRoundTrip() {
+        String json = samples.get("webhooks (not included in rachioapi_json_samples.txt)");
+        RachioApiWebHookEntry[] webhooks = RachioJsonCodec.fromJson(json, RachioApiWebHookEntry[].class);
+        assertEquals(1, webhooks.length);
+        assertEquals("http://openhab.example.com:50043/rachio/webhook", webhooks[0].url);
+        assertEquals("1370c2a14848fd9f5fe10d1a77a91367", webhooks[0].externalId);
+        assertEquals(reflective.toJson(reflective.fromJson(json, RachioApiWebHookEntry[].class)),
+                reflective.toJson(webhooks));
+        assertRoundTrip(webhooks[0], RachioApiWebHookEntry.class);
+    }
+
+    /**
+     * Encode the object, decode it again and compare (field by field using the reflective encoding)
+     */
+    private <T> void assertRoundTrip(T object, Class<T> classOfT) {
+        String json = RachioJsonCodec.toJson(object);
+        T decoded = RachioJsonCodec.fromJson(json, classOfT);
+        assertEquals(reflective.toJson(object), reflective.toJson(decoded));
+        assertEquals(json, RachioJsonCodec.toJson(decoded));
+    }
+}
@@ -0,0 +1,543 @@
+/**
+ * Copyright (c) 2010-2018 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.rachio.internal.simulator;
+
+import static org.openhab.binding.rachio.RachioBindingConstants.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.StringWriter;
+import java.net.HttpURLConnection;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.google.gson.stream.JsonWriter;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * The {@link RachioCloudSimulator} is a local stand-in for the Rachio cloud api, used for integration and load tests
+ * without network access. It simulates an account with a configurable number of controllers and zones, the payloads
+ * follow the samples in rachioapi_json_samples.txt.
+ *
+ * - Supported: person/info, person/{id}, device/{id}, device/on|off|stop_water|rain_delay, zone/start,
+ * zone/start_multiple, notification/{deviceId}/webhook, notification/webhook (POST/DELETE)
+ * - Each response includes the X-RateLimit headers, the quota is reduced with each request
+ * - Latency and errors (503) can be injected
+ * - Commands trigger webhook events, which are posted to the registered callback urls (e.g. RachioWebHookServlet)
+ *
+ * Point the bridge to the simulator with apiUrl="http://localhost:&lt;port&gt;/1/public/" and add the local network to
+ * the ipFilter, so the events are accepted. The simulator could be run standalone (see main()) or embedded.
+ *
+ * @author Markus Michels (markus7017) - Initial contribution
+ */
+public class RachioCloudSimulator {
+    private final Logger logger = LoggerFactory.getLogger(RachioCloudSimulator.class);
+
+    public static final String API_PATH = "/1/public/";
+    public static final int SIM_RATE_LIMIT = 1700;
+
+    private static class RachioSimZone {
+        private final String id = UUID.randomUUID().toString();
+        private int zoneNumber;
+        private String name = "";
+        private boolean enabled = true;
+    }
+
+    private static class RachioSimDevice {
+        private final String id = UUID.randomUUID().toString();
+        private String name = "";
+        private boolean on = true;
+        private long rainDelayExpirationDate = 0;
+        private final List<RachioSimZone> zones = new ArrayList<>();
+        private volatile RachioSimZone runningZone;
+    }
+
+    private static class RachioSimWebHook {
+        private final String id = UUID.randomUUID().toString();
+        private final long createDate = System.currentTimeMillis();
+        private String deviceId = "";
+        private String url = "";
+        private String externalId = "";
+    }
+
+    private final String personId = UUID.randomUUID().toString();
+    private final Map<String, RachioSimDevice> devices = new ConcurrentHashMap<>();
+    private final Map<String, RachioSimWebHook> webhooks = new ConcurrentHashMap<>();
+    private final AtomicInteger rateRemaining = new AtomicInteger(SIM_RATE_LIMIT);
+    private final AtomicInteger requests = new AtomicInteger();
+    private final AtomicInteger eventSequence = new AtomicInteger();
+    private final HttpServer server;
+    private final ScheduledExecutorService eventSender;
+    private volatile int latency = 0;
+    private volatile double errorRate = 0.0;
+
+    /**
+     * Create the simulator
+     *
+     * @param port Local port, 0=any free port
+     * @param numDevices Number of controllers
+     * @param numZones Number of zones per controller
+     * @throws IOException if the port can't be bound
+     */
+    public RachioCloudSimulator(int port, int numDevices, int numZones) throws IOException {
+        for (int d = 1; d <= numDevices; d++) {
+            RachioSimDevice device = new RachioSimDevice();
+            device.name = "Rachio Simulator " + d;
+            for (int z = 1; z <= numZones; z++) {
+                RachioSimZone zone = new RachioSimZone();
+                zone.zoneNumber = z;
+                zone.name = "Zone " + z;
+                device.zones.add(zone);
+            }
+            devices.put(device.id, device);
+        }
+
+        server = HttpServer.create(new InetSocketAddress(port), 0);
+        server.createContext(API_PATH, this::handleRequest);
+        server.setExecutor(Executors.newFixedThreadPool(8));
+        eventSender = Executors.newScheduledThreadPool(2);
+    }
+
+    public void start() {
+        server.start();
+        logger.info("RachioSimulator: Listening on {} ({} controllers)", getApiUrl(), devices.size());
+    }
+
+    public void stop() {
+        server.stop(0);
+        eventSender.shutdownNow();
+    }
+
+    /**
+     * @return Base url to be used as apiUrl for the bridge
+     */
+    public String getApiUrl() {
+        return "http://localhost:" + server.getAddress().getPort() + API_PATH;
+    }
+
+    public List<String> getDeviceIds() {
+        return new ArrayList<>(devices.keySet());
+    }
+
+    /**
+     * @return number of api requests received
+     */
+    public int getRequestCount() {
+        return requests.get();
+    }
+
+    /**
+     * @param latency Delay in ms added to each response
+     */
+    public void setLatency(int latency) {
+        this.latency = latency;
+    }
+
+    /**
+     * @param errorRate Fraction of requests failing with 503 (0.0-1.0)
+     */
+    public void setErrorRate(double errorRate) {
+        this.errorRate = errorRate;
+    }
+
+    /**
+     * Set the remaining api calls, e.g. to test the rate limit handling
+     */
+    public void setRateRemaining(int remaining) {
+        rateRemaining.set(remaining);
+    }
+
+    /**
+     * Post a synthetic device event to the webhooks registered for the device
+     *
+     * @param deviceId Controller
+     * @param type Event type, e.g. DEVICE_STATUS
+     * @param subType Event sub type, e.g. ONLINE
+     */
+    public void sendEvent(String deviceId, String type, String subType) {
+        sendEvent(deviceId, type, subType, null, 0);
+    }
+
+    private void sendEvent(String deviceId, String type, String subType, RachioSimZone zone, int duration) {
+        for (RachioSimWebHook webhook : webhooks.values()) {
+            if (webhook.deviceId.equals(deviceId)) {
+                String json = buildEvent(webhook, type, subType, zone, duration);
+                eventSender.execute(() -> postEvent(webhook.url, json));
+            }
+        }
+    }
+
+    private void handleRequest(HttpExchange exchange) throws IOException {
+        try {
+            requests.incrementAndGet();
+            String method = exchange.getRequestMethod();
+            String path = exchange.getRequestURI().getPath().substring(API_PATH.length());
+            String body = readBody(exchange.getRequestBody());
+            logger.trace("RachioSimulator: {} {} {}", method, path, body);
+
+            if (latency > 0) {
+                Thread.sleep(latency);
+            }
+            String auth = exchange.getRequestHeaders().getFirst("Authorization");
+            if ((auth == null) || !auth.startsWith("Bearer ")) {
+                sendResponse(exchange, HttpURLConnection.HTTP_UNAUTHORIZED, null);
+                return;
+            }
+            if (rateRemaining.get() <= 0) {
+                sendResponse(exchange, 429, null);
+                return;
+            }
+            rateRemaining.decrementAndGet();
+            if ((errorRate > 0) && (ThreadLocalRandom.current().nextDouble() < errorRate)) {
+                sendResponse(exchange, HttpURLConnection.HTTP_UNAVAILABLE, null);
+                return;
+            }
+
+            String[] segments = path.split("/");
+            switch (method) {
+                case HTTP_METHOD_GET:
+                    handleGet(exchange, segments);
+                    break;
+                case HTTP_METHOD_PUT:
+                    handlePut(exchange, path, body);
+                    break;
+                case HTTP_METHOD_POST:
+                    handlePost(exchange, path, body);
+                    break;
+                case HTTP_METHOD_DELETE:
+                    if (path.startsWith(APIURL_DEV_DELETE_WEBHOOK + "/") && (segments.length == 3)
+                            && (webhooks.remove(segments[2]) != null)) {
+                        sendResponse(exchange, HttpURLConnection.HTTP_NO_CONTENT, null);
+                    } else {
+                        sendResponse(exchange, HttpURLConnection.HTTP_NOT_FOUND, null);
+                    }
+                    break;
+                default:
+                    sendResponse(exchange, HttpURLConnection.HTTP_BAD_METHOD, null);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            sendResponse(exchange, HttpURLConnection.HTTP_UNAVAILABLE, null);
+        } catch (RuntimeException e) {
+            logger.debug("RachioSimulator: Unable to process request: {}", e.toString());
+            sendResponse(exchange, HttpURLConnection.HTTP_BAD_REQUEST, null);
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private void handleGet(HttpExchange exchange, String[] segments) throws IOException {
+        StringWriter json = new StringWriter();
+        JsonWriter out = new JsonWriter(json);
+        if ((segments.length == 2) && segments[0].equals("person") && segments[1].equals("info")) {
+            out.beginObject().name("id").value(personId).endObject();
+        } else if ((segments.length == 2) && segments[0].equals("person") && segments[1].equals(personId)) {
+            out.beginObject();
+            out.name("id").value(personId);
+            out.name("username").value("simulator");
+            out.name("fullName").value("Rachio Simulator");
+            out.name("email").value("simulator@localhost");
+            out.name("devices").beginArray();
+            for (RachioSimDevice device : devices.values()) {
+                writeDevice(out, device);
+            }
+            out.endArray();
+            out.endObject();
+        } else if ((segments.length == 2) && segments[0].equals(APIURL_GET_DEVICE)
+                && devices.containsKey(segments[1])) {
+            writeDevice(out, devices.get(segments[1]));
+        } else if ((segments.length == 3) && segments[0].equals(APIURL_DEV_QUERY_WEBHOOK)
+                && segments[2].equals("webhook")) {
+            out.beginArray();
+            for (RachioSimWebHook webhook : webhooks.values()) {
+                if (webhook.deviceId.equals(segments[1])) {
+                    writeWebHook(out, webhook);
+                }
+            }
+            out.endArray();
+        } else {
+            sendResponse(exchange, HttpURLConnection.HTTP_NOT_FOUND, null);
+            return;
+        }
+        out.close();
+        sendResponse(exchange, HttpURLConnection.HTTP_OK, json.toString());
+    }
+
+    private void handlePut(HttpExchange exchange, String path, String body) throws IOException {
+        JsonObject request = new JsonParser().parse(body).getAsJsonObject();
+        if (path.equals(APIURL_ZONE_PUT_START)) {
+            startZone(getString(request, "id"), request.get("duration").getAsInt());
+        } else if (path.equals(APIURL_ZONE_PUT_MULTIPLE_START)) {
+            // the controller runs the zones one after the other, only the first one gets started
+            JsonArray zones = request.getAsJsonArray("zones");
+            if (zones.size() > 0) {
+                JsonObject zone = zones.get(0).getAsJsonObject();
+                startZone(getString(zone, "id"), zone.get("duration").getAsInt());
+            }
+        } else {
+            RachioSimDevice device = devices.get(getString(request, "id"));
+            if (device == null) {
+                sendResponse(exchange, HttpURLConnection.HTTP_NOT_FOUND, null);
+                return;
+            }
+            if (path.equals(APIURL_DEV_PUT_ON) || path.equals(APIURL_DEV_PUT_OFF)) {
+                device.on = path.equals(APIURL_DEV_PUT_ON);
+                sendEvent(device.id, "DEVICE_STATUS", device.on ? "ONLINE" : "SLEEP_MODE_ON", null, 0);
+            } else if (path.equals(APIURL_DEV_PUT_STOP)) {
+                RachioSimZone zone = device.runningZone;
+                device.runningZone = null;
+                if (zone != null) {
+                    sendEvent(device.id, "ZONE_STATUS", "ZONE_STOPPED", zone, 0);
+                }
+            } else if (path.equals(APIURL_DEV_PUT_RAIN_DELAY)) {
+                int duration = request.get("duration").getAsInt();
+                device.rainDelayExpirationDate = System.currentTimeMillis() + duration * 1000L;
+                sendEvent(device.id, "RAIN_DELAY", duration > 0 ? "RAIN_DELAY_ON" : "RAIN_DELAY_OFF", null, duration);
+            } else {
+                sendResponse(exchange, HttpURLConnection.HTTP_NOT_FOUND, null);
+                return;
+            }
+        }
+        sendResponse(exchange, HttpURLConnection.HTTP_NO_CONTENT, null);
+    }
+
+    private void handlePost(HttpExchange exchange, String path, String body) throws IOException {
+        if (!path.equals(APIURL_DEV_POST_WEBHOOK)) {
+            sendResponse(exchange, HttpURLConnection.HTTP_NOT_FOUND, null);
+            return;
+        }
+        JsonObject request = new JsonParser().parse(body).getAsJsonObject();
+        RachioSimWebHook webhook = new RachioSimWebHook();
+        webhook.deviceId = getString(request.getAsJsonObject("device"), "id");
+        webhook.url = getString(request, "url");
+        webhook.externalId = getString(request, "externalId");
+        webhooks.put(webhook.id, webhook);
+
+        StringWriter json = new StringWriter();
+        try (JsonWriter out = new JsonWriter(json)) {
+            writeWebHook(out, webhook);
+        }
+        sendResponse(exchange, HttpURLConnection.HTTP_OK, json.toString());
+    }
+
+    private void startZone(String zoneId, int duration) {
+        for (RachioSimDevice device : devices.values()) {
+            for (RachioSimZone zone : device.zones) {
+                if (zone.id.equals(zoneId)) {
+                    device.runningZone = zone;
+                    sendEvent(device.id, "ZONE_STATUS", "ZONE_STARTED", zone, duration);
+                    eventSender.schedule(() -> {
+                        if (device.runningZone == zone) {
+                            device.runningZone = null;
+                            sendEvent(device.id, "ZONE_STATUS", "ZONE_COMPLETED", zone, duration);
+                        }
+                    }, duration, TimeUnit.SECONDS);
+                    return;
+                }
+            }
+        }
+        throw new IllegalArgumentException("Unknown zone " + zoneId);
+    }
+
+    private void writeDevice(JsonWriter out, RachioSimDevice device) throws IOException {
+        out.beginObject();
+        out.name("createDate").value(1494626927284L);
+        out.name("id").value(device.id);
+        out.name("status").value("ONLINE");
+        out.name("zones").beginArray();
+        for (RachioSimZone zone : device.zones) {
+            out.beginObject();
+            out.name("id").value(zone.id);
+            out.name("zoneNumber").value(zone.zoneNumber);
+            out.name("name").value(zone.name);
+            out.name("enabled").value(zone.enabled);
+            out.name("availableWater").value(0.05);
+            out.name("rootZoneDepth").value(9.0);
+            out.name("managementAllowedDepletion").value(0.5);
+            out.name("efficiency").value(0.8);
+            out.name("yardAreaSquareFeet").value(500);
+            out.name("imageUrl").value("http://media.rach.io/images/zone/default/default_zone.jpg");
+            out.name("lastWateredDuration").value(811);
+            out.name("lastWateredDate").value(1518420166652L);
+            out.name("scheduleDataModified").value(false);
+            out.name("fixedRuntime").value(0);
+            out.name("saturatedDepthOfWater").value(0.25);
+            out.name("depthOfWater").value(0.23);
+            out.name("maxRuntime").value(10800);
+            out.name("runtimeNoMultiplier").value(1344);
+            out.name("runtime").value(1344);
+            out.endObject();
+        }
+        out.endArray();
+        out.name("timeZone").value("America/New_York");
+        out.name("latitude").value(26.928539276123);
+        out.name("longitude").value(-82.3335037231445);
+        out.name("zip").value("34224");
+        out.name("name").value(device.name);
+        out.name("scheduleRules").beginArray().endArray();
+        out.name("serialNumber").value("VR0" + device.id.substring(0, 6).toUpperCase());
+        out.name("rainDelayExpirationDate").value(device.rainDelayExpirationDate);
+        out.name("macAddress").value(device.id.substring(24).toUpperCase());
+        out.name("elevation").value(2.04927587509155);
+        out.name("webhooks").beginArray().endArray();
+        out.name("paused").value(false);
+        out.name("on").value(device.on);
+        out.name("flexScheduleRules").beginArray().endArray();
+        out.name("model").value("8ZR2ULW");
+        out.name("scheduleModeType").value("MANUAL");
+        out.name("deleted").value(false);
+        out.name("utcOffset").value(-18000000);
+        out.name("homeKitCompatible").value(false);
+        out.endObject();
+    }
+
+    private static void writeWebHook(JsonWriter out, RachioSimWebHook webhook) throws IOException {
+        out.beginObject();
+        out.name("createDate").value(webhook.createDate);
+        out.name("lastUpdateDate").value(webhook.createDate);
+        out.name("id").value(webhook.id);
+        out.name("url").value(webhook.url);
+        out.name("externalId").value(webhook.externalId);
+        out.endObject();
+    }
+
+    private String buildEvent(RachioSimWebHook webhook, String type, String subType, RachioSimZone zone,
+            int duration) {
+        StringWriter json = new StringWriter();
+        try (JsonWriter out = new JsonWriter(json)) {
+            Instant now = Instant.now();
+            out.beginObject();
+            out.name("externalId").value(webhook.externalId);
+            out.name("routingId").value(webhook.deviceId);
+            out.name("deviceId").value(webhook.deviceId);
+            out.name("id").value(UUID.randomUUID().toString());
+            out.name("type").value(type);
+            out.name("subType").value(subType);
+            out.name("category").value("DEVICE");
+            out.name("sequence").value(eventSequence.incrementAndGet());
+            out.name("timestamp").value(now.toString());
+            out.name("eventDate").value(now.toEpochMilli());
+            out.name("duration").value(duration);
+            out.name("durationInMinutes").value(duration / 60);
+            if (zone != null) {
+                String state = subType.replace("ZONE_", "");
+                out.name("zoneNumber").value(zone.zoneNumber);
+                out.name("zoneName").value(zone.name);
+                out.name("zoneRunState").value(state);
+                out.name("eventType").value("DEVICE_ZONE_RUN_" + state + "_EVENT");
+                out.name("summary").value(zone.name + " " + state.toLowerCase() + " watering.");
+                out.name("zoneRunStatus").beginObject();
+                out.name("duration").value(duration);
+                out.name("scheduleType").value("FIXED");
+                out.name("zoneNumber").value(zone.zoneNumber);
+                out.name("executionType").value("MANUAL");
+                out.name("state").value(state);
+                out.name("startTime").value(now.toString());
+                out.name("endTime").value(now.plusSeconds(duration).toString());
+                out.endObject();
+            } else {
+                out.name("summary").value(type + " " + subType);
+            }
+            out.endObject();
+        } catch (IOException e) {
+            // StringWriter doesn't throw
+        }
+        return json.toString();
+    }
+
+    private void postEvent(String callbackUrl, String json) {
+        try {
+            HttpURLConnection request = (HttpURLConnection) new URL(callbackUrl).openConnection();
+            request.setRequestMethod(HTTP_METHOD_POST);
+            request.setDoOutput(true);
+            request.setConnectTimeout(HTTP_TIMOUT);
+            request.setReadTimeout(HTTP_READ_TIMEOUT);
+            request.setRequestProperty("Content-Type", SERVLET_WEBHOOK_APPLICATION_JSON);
+            try (OutputStream out = request.getOutputStream()) {
+                out.write(json.getBytes(StandardCharsets.UTF_8));
+            }
+            int responseCode = request.getResponseCode();
+            logger.trace("RachioSimulator: Event posted to {}, http code={}", callbackUrl, responseCode);
+            request.disconnect();
+        } catch (IOException e) {
+            logger.debug("RachioSimulator: Unable to post event to {}: {}", callbackUrl, e.toString());
+        }
+    }
+
+    private void sendResponse(HttpExchange exchange, int responseCode, String json) throws IOException {
+        exchange.getResponseHeaders().set(RACHIO_JSON_RATE_LIMIT, String.valueOf(SIM_RATE_LIMIT));
+        exchange.getResponseHeaders().set(RACHIO_JSON_RATE_REMAINING, String.valueOf(Math.max(0, rateRemaining.get())));
+        exchange.getResponseHeaders().set(RACHIO_JSON_RATE_RESET,
+                LocalDate.now(ZoneOffset.UTC).plusDays(1).atStartOfDay(ZoneOffset.UTC).toInstant().toString());
+        if (json == null) {
+            exchange.sendResponseHeaders(responseCode, -1);
+            return;
+        }
+        byte[] data = json.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", SERVLET_WEBHOOK_APPLICATION_JSON);
+        exchange.sendResponseHeaders(responseCode, data.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(data);
+        }
+    }
+
+    private static String readBody(InputStream in) throws IOException {
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        byte[] buffer = new byte[4096];
+        int len;
+        while ((len = in.read(buffer)) != -1) {
+            body.write(buffer, 0, len);
+        }
+        return new String(body.toByteArray(), StandardCharsets.UTF_8);
+    }
+
+    private static String getString(JsonObject object, String name) {
+        JsonElement value = object != null ? object.get(name) : null;
+        return (value != null) && !value.isJsonNull() ? value.getAsString() : "";
+    }
+
+    /**
+     * Run the simulator standalone: RachioCloudSimulator [port] [controllers] [zones per controller]
+     */
+    public static void main(String[] args) throws IOException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : 8089;
+        int numDevices = args.length > 1 ? Integer.parseInt(args[1]) : 1;
+        int numZones = args.length > 2 ? Integer.parseInt(args[2]) : 8;
+        RachioCloudSimulator simulator = new RachioCloudSimulator(port, numDevices, numZones);
+        simulator.start();
+        System.out.println("Rachio cloud simulator running, apiUrl=" + simulator.getApiUrl());
+        Runtime.getRuntime().addShutdownHook(new Thread(simulator::stop));
+    }
+}
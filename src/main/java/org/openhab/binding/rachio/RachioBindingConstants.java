@@ -56,6 +56,10 @@ public class RachioBindingConstants {
     public static final String PARAM_CALLBACK_URL = "callbackUrl";
     public static final String PARAM_CLEAR_CALLBACK = "clearAllCallbacks";
     public static final String PARAM_IPFILTER = "ipFilter";
+    public static final String PARAM_COMMAND_WINDOW = "commandWindow";
+    public static final String PARAM_API_URL = "apiUrl";
+    public static final String PARAM_EVENT_QUEUE_SIZE = "eventQueueSize";
+    public static final String PARAM_EVENT_QUEUE_OVERFLOW = "eventQueueOverflow";
 
     // List of non-standard Properties
     public static final String PROPERTY_IP_ADDRESS = "ipAddress";
@@ -79,6 +83,15 @@ public class RachioBindingConstants {
     public static int DEFAULT_HTTP_TIMEOUT = 15 * 1000;
     public static int DEFAULT_POLLING_INTERVAL = 120;
     public static int DEFAULT_ZONE_RUNTIME = 300;
+    public static int DEFAULT_COMMAND_WINDOW = 500; // ms
+    public static int DEFAULT_EVENT_QUEUE_SIZE = 100;
+    public static String DEFAULT_EVENT_QUEUE_OVERFLOW = "dropOldest";
+
+    // List of all Cloud (bridge) Channel ids, metrics
+    public static final String CHANNEL_CLOUD_API_CALLS = "apiCalls";
+    public static final String CHANNEL_CLOUD_RATE_REMAINING = "rateRemaining";
+    public static final String CHANNEL_CLOUD_POLL_DURATION = "pollDuration";
+    public static final String CHANNEL_CLOUD_EVENTS = "webhookEvents";
 
     // List of all Device Channel ids
     public static final String CHANNEL_DEVICE_NAME = "name";
@@ -122,6 +135,16 @@ public class RachioBindingConstants {
     public static final String HTTP_METHOD_POST = "POST";
     public static final String HTTP_METHOD_DELETE = "DELETE";
     public static final int HTTP_TIMOUT = 15000;
+    public static final int HTTP_READ_TIMEOUT = 20000; // max time waiting for response data
+    public static final int HTTP_IDLE_TIMEOUT = 60000; // pooled connections are closed after 60s idle time
+    public static final int HTTP_MAX_CONNECTIONS_PER_HOST = 4; // bounded per api.rach.io
+    public static final String HTTP_CLIENT_NAME = "rachio";
+    public static final String HTTP_HEADER_ETAG = "ETag";
+    public static final String HTTP_HEADER_LAST_MODIFIED = "Last-Modified";
+    public static final String HTTP_HEADER_IF_NONE_MATCH = "If-None-Match";
+    public static final String HTTP_HEADER_IF_MODIFIED_SINCE = "If-Modified-Since";
+    public static final String HTTP_HEADER_CONTENT_LENGTH = "Content-Length";
+    public static final int RACHIO_COMMAND_QUEUE_SIZE = 50; // max number of queued commands per bridge
 
     public static final String APIURL_BASE = "https://api.rach.io/1/public/";
 
@@ -171,6 +194,9 @@ public class RachioBindingConstants {
     public static final String SERVLET_WEBHOOK_CHARSET = "utf-8";
     public static final String SERVLET_WEBHOOK_USER_AGENT = "Mozilla/5.0";
 
+    public static final String SERVLET_METRICS_PATH = "/rachio/metrics";
+    public static final String SERVLET_METRICS_CONTENT_TYPE = "text/plain; version=0.0.4";
+
     public static final String SERVLET_IMAGE_PATH = "/rachio/images";
     public static final String SERVLET_IMAGE_MIME_TYPE = "image/png";
     public static final String SERVLET_IMAGE_URL_BASE = "https://prod-media-photo.rach.io/";
@@ -179,9 +205,28 @@ public class RachioBindingConstants {
     public static final String RACHIO_JSON_RATE_REMAINING = "X-RateLimit-Remaining";
     public static final String RACHIO_JSON_RATE_RESET = "X-RateLimit-Reset";
     public static final int RACHIO_RATE_LIMIT_WARNING = 200; // slow down polling
-    public static final int RACHIO_RATE_LIMIT_CRITICAL = 100; // stop polling
+    public static final int RACHIO_RATE_LIMIT_CRITICAL = 100; // stop polling, reserve for commands
     public static final int RACHIO_RATE_LIMIT_BLOCK = 20; // block api access
-    public static final int RACHIO_RATE_SKIP_CALLS = 5;
+    public static final int RACHIO_CACHE_TTL_PERSON = 24 * 3600; // personId doesn't change
+    public static final int RACHIO_CACHE_TTL_WEBHOOK = 3600; // registered webhooks, invalidated on changes
+    public static final int RACHIO_CACHE_TTL_DEVICE = 60; // device/{id}, could be changed by the app
+    public static final int RACHIO_POLL_INTERVAL_WATERING = 60; // poll faster while zones are running
+    public static final int RACHIO_POLL_WEBHOOK_FACTOR = 3; // poll slower when webhooks are active
+    public static final int RACHIO_POLL_WEBHOOK_TIMEOUT = 3600; // webhooks are active if an event arrived recently
+    public static final int RACHIO_POLL_MIN_INTERVAL = 30;
+    public static final int RACHIO_HTTP_MAX_RETRIES = 2; // GET/PUT only, each retry consumes an API call
+    public static final int RACHIO_HTTP_RETRY_DELAY = 500; // ms, doubled for each retry
+    public static final int RACHIO_HTTP_RETRY_MAX_DELAY = 5000; // ms
+    public static final int RACHIO_CB_FAILURE_THRESHOLD = 5; // consecutive failures to open the circuit
+    public static final int RACHIO_INIT_RETRY_DELAY = 30; // s, first retry of a failed bridge initialization
+    public static final int RACHIO_INIT_RETRY_MAX_DELAY = 900; // s
+    public static final int RACHIO_WEBHOOK_MAX_BODY = 64 * 1024; // bytes, larger requests are rejected
+    public static final int RACHIO_EVENT_DEDUP_SIZE = 1000; // event ids/sequences remembered per bridge
+    public static final int RACHIO_EVENT_DEDUP_WINDOW = 600; // s
+    public static final int RACHIO_EVENT_RESYNC_DELAY = 5; // s, poll after webhook events were dropped
+    public static final int RACHIO_EVENT_REORDER_DELAY = 250; // ms, hold events to put them in order per device
+    public static final int RACHIO_EVENT_LANE_THREADS = 4; // max number of devices processing events in parallel
+    public static final int RACHIO_CB_OPEN_TIME = 60; // seconds to fail fast before the next trial
 
     public static final String AWS_IPADDR_DOWNLOAD_URL = "https://ip-ranges.amazonaws.com/ip-ranges.json";
     public static final String AWS_IPADDR_REGION_FILTER = "us-";
@@ -19,6 +19,7 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
@@ -27,19 +28,33 @@ import javax.security.auth.login.LoginException;
 
 import org.eclipse.smarthome.config.core.Configuration;
 import org.eclipse.smarthome.config.core.status.ConfigStatusMessage;
+import org.eclipse.smarthome.core.library.types.DecimalType;
 import org.eclipse.smarthome.core.thing.Bridge;
 import org.eclipse.smarthome.core.thing.ChannelUID;
+import org.eclipse.smarthome.core.thing.Thing;
 import org.eclipse.smarthome.core.thing.ThingStatus;
 import org.eclipse.smarthome.core.thing.ThingStatusDetail;
+import org.eclipse.smarthome.core.thing.ThingStatusInfo;
 import org.eclipse.smarthome.core.thing.ThingUID;
 import org.eclipse.smarthome.core.thing.binding.ConfigStatusBridgeHandler;
+import org.eclipse.smarthome.core.thing.binding.ThingHandler;
 import org.eclipse.smarthome.core.types.Command;
+import org.eclipse.smarthome.core.types.RefreshType;
 import org.openhab.binding.rachio.internal.RachioConfiguration;
 import org.openhab.binding.rachio.internal.api.RachioApi;
+import org.openhab.binding.rachio.internal.api.RachioApi.RachioApiResult;
 import org.openhab.binding.rachio.internal.api.RachioApiException;
+import org.openhab.binding.rachio.internal.api.RachioCommandBatcher;
+import org.openhab.binding.rachio.internal.api.RachioCommandQueue;
 import org.openhab.binding.rachio.internal.api.RachioDevice;
 import org.openhab.binding.rachio.internal.api.RachioEvent;
+import org.openhab.binding.rachio.internal.api.RachioEventDedup;
+import org.openhab.binding.rachio.internal.api.RachioEventQueue;
+import org.openhab.binding.rachio.internal.api.RachioMetrics;
+import org.openhab.binding.rachio.internal.api.RachioPollScheduler;
 import org.openhab.binding.rachio.internal.api.RachioZone;
+import org.openhab.binding.rachio.internal.discovery.RachioDiscoveryService;
+import org.openhab.binding.rachio.internal.jfr.RachioFlightRecorder;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -57,11 +72,29 @@ public class RachioBridgeHandler extends ConfigStatusBridgeHandler {
 
     private final List<RachioStatusListener> rachioStatusListeners = new CopyOnWriteArrayList<>();
     private final RachioApi rachioApi;
+    private final RachioCommandQueue commandQueue;
+    private final RachioCommandBatcher commandBatcher;
+    private final RachioEventQueue eventQueue;
+    private final RachioEventDedup eventDedup;
+    private RachioDiscoveryService discoveryService;
     private String personId = "";
+    private volatile String externalId = ""; // webhook routing key, computed once per connect
+
+    private enum RachioBridgeState {
+        INITIALIZING,
+        CONNECTING,
+        RETRY_WAIT,
+        ONLINE,
+        DISPOSED
+    }
 
+    private RachioBridgeState state = RachioBridgeState.INITIALIZING;
+    private volatile boolean modelReady = false; // devices/zones are complete incl. their UIDs
+    private int connectRetries = 0;
+    private ScheduledFuture<?> connectJob;
     private ScheduledFuture<?> pollingJob;
     private boolean jobPending = false;
-    private int skipCalls = 0;
+    private final RachioPollScheduler pollScheduler = new RachioPollScheduler(DEFAULT_POLLING_INTERVAL);
 
     /**
      * Thing Handler for the Bridge thing. Handles the cloud connection and links devices+zones to a bridge.
@@ -81,6 +114,10 @@ public class RachioBridgeHandler extends ConfigStatusBridgeHandler {
     public RachioBridgeHandler(final Bridge bridge) {
         super(bridge);
         rachioApi = new RachioApi(personId);
+        commandQueue = new RachioCommandQueue(scheduler);
+        commandBatcher = new RachioCommandBatcher(rachioApi, commandQueue, scheduler, DEFAULT_COMMAND_WINDOW);
+        eventQueue = new RachioEventQueue(bridge.getUID().getId(), this::processEvent, this::resyncEvents);
+        eventDedup = new RachioEventDedup(RACHIO_EVENT_DEDUP_SIZE, RACHIO_EVENT_DEDUP_WINDOW);
     }
 
     public void setConfiguration(RachioConfiguration defaultConfig) {
@@ -88,78 +125,124 @@ public class RachioBridgeHandler extends ConfigStatusBridgeHandler {
     }
 
     /**
-     * Initialize the bridge/cloud handler. Creates a connection to the Rachio Cloud, reads devices + zones and
-     * initialized the Thing mapping.
+     * Initialize the bridge/cloud handler. No network I/O is done on the caller's thread: the bridge goes to UNKNOWN
+     * and connects to the Rachio Cloud on the scheduler (see connect()).
      */
     @Override
     public void initialize() {
-        String errorMessage = "";
+        thingConfig = bindingConfig;
+        thingConfig.updateConfig(getConfig().getProperties());
+        pollScheduler.setPollingInterval(thingConfig.pollingInterval);
+        commandBatcher.setWindow(thingConfig.commandWindow);
+        commandQueue.start();
+        eventQueue.setCapacity(thingConfig.eventQueueSize, thingConfig.eventQueueOverflow);
+        eventQueue.start();
+
+        if (thingConfig.apikey.isEmpty()) {
+            updateStatus(ThingStatus.OFFLINE, ThingStatusDetail.CONFIGURATION_ERROR,
+                    "Unable to connect to Rachio Cloud: apikey not set, check services/rachio.cfg!");
+            return;
+        }
 
+        synchronized (this) {
+            state = RachioBridgeState.INITIALIZING;
+            modelReady = false;
+            connectRetries = 0;
+        }
+        updateStatus(ThingStatus.UNKNOWN);
+        scheduleConnect(0);
+    } // initialize()
+
+    private synchronized void scheduleConnect(long delay) {
+        if (state == RachioBridgeState.DISPOSED) {
+            return;
+        }
+        state = delay > 0 ? RachioBridgeState.RETRY_WAIT : RachioBridgeState.CONNECTING;
+        connectJob = scheduler.schedule(this::connect, delay, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Connect to the Rachio Cloud (or start from the snapshot), build the device/zone model and publish it. The child
+     * handlers attach to the model when the bridge goes ONLINE (bridgeStatusChanged). On failure the connect is
+     * retried with exponential backoff.
+     */
+    private void connect() {
+        String errorMessage = "";
         try {
-            thingConfig = bindingConfig;
-            thingConfig.updateConfig(getConfig().getProperties());
+            synchronized (this) {
+                if (state == RachioBridgeState.DISPOSED) {
+                    return;
+                }
+                state = RachioBridgeState.CONNECTING;
+            }
 
-            logger.debug("RachioBridge: Connecting to Rachio cloud");
-            createCloudConnection(rachioApi);
+            boolean warmStart = restoreSnapshot(rachioApi);
+            if (!warmStart) {
+                logger.debug("RachioBridge: Connecting to Rachio cloud");
+                createCloudConnection(rachioApi);
+            }
             updateProperties();
+            initializeModel(rachioApi.getDevices());
 
-            // Pass BridgeUID to device, RachioDeviceHandler will fill DeviceUID
-            Bridge bridgeThing = this.getThing();
-            HashMap<String, RachioDevice> deviceList = getDevices();
-            for (HashMap.Entry<String, RachioDevice> de : deviceList.entrySet()) {
-                RachioDevice dev = de.getValue();
-                ThingUID devThingUID = new ThingUID(THING_TYPE_DEVICE, bridgeThing.getUID(), dev.getThingID());
-                dev.setUID(this.getThing().getUID(), devThingUID);
-                // Set DeviceUID for all zones
-                HashMap<String, RachioZone> zoneList = dev.getZones();
-                for (HashMap.Entry<String, RachioZone> ze : zoneList.entrySet()) {
-                    RachioZone zone = ze.getValue();
-                    ThingUID zoneThingUID = new ThingUID(THING_TYPE_ZONE, bridgeThing.getUID(), zone.getThingID());
-                    zone.setUID(dev.getUID(), zoneThingUID);
+            // publish the model, the child handlers attach when the bridge goes ONLINE
+            synchronized (this) {
+                if (state == RachioBridgeState.DISPOSED) {
+                    return;
                 }
+                state = RachioBridgeState.ONLINE;
+                connectRetries = 0;
+                modelReady = true;
             }
-
-            // Prepare port mapping
-            /*
-             * String url = getCallbackUrl();
-             * if (!url.equals("")) {
-             * String port[] = url.split(":");
-             * int internalPort = Integer.parseInt(port[1]);
-             * int externalPort = 8443;
-             *
-             * if (network.initializePortMapping(externalPort, internalPort,
-             * RachioBindingConstants.PORT_REFRESH_INTERVAL)) {
-             * logger.info("RachioBridge: Port mapping initialzed, external {} -> internal {}", internalPort,
-             * externalPort);
-             * }
-             * }
-             */
-
-            // Bridge initialized, change to ONLINE state
-            // updateListenerManagement();
             logger.info("RachioCloud: Cloud connector initialized.");
             updateStatus(ThingStatus.ONLINE);
+
+            if (warmStart) {
+                // revalidate the snapshot data
+                refreshDeviceStatus();
+                reconcileWebHooks();
+            } else {
+                reconcileWebHooks();
+                rachioApi.saveSnapshot();
+            }
         } catch (RachioApiException e) {
             errorMessage = e.toString();
         } catch (UnknownHostException e) {
             errorMessage = MessageFormat.format("Unknown host '{0}' or Internet connection down", e.getMessage());
         } catch (Throwable e) {
-            errorMessage = e.getMessage();
+            errorMessage = e.getMessage() != null ? e.getMessage() : e.toString();
         } finally {
             if (!errorMessage.isEmpty()) {
-                logger.error("RachioBridge: {}", errorMessage);
-                updateStatus(ThingStatus.OFFLINE, ThingStatusDetail.COMMUNICATION_ERROR, errorMessage);
+                retryConnect(errorMessage);
             }
         }
-    } // initialize()
+    } // connect()
+
+    private void retryConnect(String errorMessage) {
+        long delay;
+        synchronized (this) {
+            if ((state == RachioBridgeState.DISPOSED) || (state == RachioBridgeState.ONLINE)) {
+                logger.warn("RachioBridge: {}", errorMessage);
+                return;
+            }
+            delay = Math.min((long) RACHIO_INIT_RETRY_DELAY << Math.min(connectRetries, 10),
+                    RACHIO_INIT_RETRY_MAX_DELAY);
+            connectRetries++;
+        }
+        logger.error("RachioBridge: {} (retry in {}s)", errorMessage, delay);
+        updateStatus(ThingStatus.OFFLINE, ThingStatusDetail.COMMUNICATION_ERROR,
+                MessageFormat.format("{0} (retry in {1}s)", errorMessage, delay));
+        scheduleConnect(delay);
+    }
 
     /**
-     * Handle Thing commands - the bridge doesn't implement any commands
+     * Handle Thing commands - the bridge has only read-only metric channels
      */
     @Override
     public void handleCommand(final ChannelUID channelUID, final Command command) {
-        // cloud handler has no channels
         logger.debug("RachioBridge.handleCommand {} for {}", command.toString(), channelUID.getAsString());
+        if (command == RefreshType.REFRESH) {
+            updateMetricChannels();
+        }
     }
 
     /**
@@ -170,105 +253,221 @@ public class RachioBridgeHandler extends ConfigStatusBridgeHandler {
         String errorMessage = "";
         logger.debug("RachioBridgeHandler: refreshDeviceStatus");
 
-        try {
-            synchronized (this) {
-                if (jobPending) {
-                    logger.debug("RachioBridge: Already checking");
-                    return;
-                }
-                jobPending = true;
+        synchronized (this) {
+            if (jobPending) {
+                logger.debug("RachioBridge: Already checking");
+                return;
             }
-
+            jobPending = true;
+        }
+        Object jfrEvent = RachioFlightRecorder.beginPoll();
+        int devices = 0;
+        int zones = 0;
+        int changes = 0;
+        boolean cloudError = false;
+        try {
             HashMap<String, RachioDevice> deviceList = getDevices();
             if (deviceList == null) {
                 logger.debug("RachioBridgeHandler: Cloud access not initialized yet!");
                 return;
             }
 
-            RachioApi checkApi = new RachioApi(personId);
-            createCloudConnection(checkApi);
-            if (checkApi.getLastApiResult().isRateLimitBlocked()) {
+            // keep the existing objects, only read the current data and apply the changes
+            HashMap<String, RachioDevice> checkDevList = rachioApi.refreshDevices();
+            RachioApiResult apiResult = rachioApi.getLastApiResult();
+            if (apiResult.isRateLimitBlocked()) {
                 String errorCritical = "";
                 errorCritical = MessageFormat.format(
-                        "RachioBridge: API access blocked on update ({0} / {1}), reset at {2}",
-                        checkApi.getLastApiResult().rateRemaining, checkApi.getLastApiResult().rateLimit,
-                        checkApi.getLastApiResult().rateReset);
+                        "RachioBridge: API access blocked on update ({0} / {1}), reset at {2}", apiResult.rateRemaining,
+                        apiResult.rateLimit, apiResult.rateReset);
                 logger.error("{}", errorCritical);
                 updateStatus(ThingStatus.OFFLINE, ThingStatusDetail.COMMUNICATION_ERROR, errorCritical); // shutdown
                                                                                                          // bridge+devices+zones
                 return;
             }
-            if (checkApi.getLastApiResult().isRateLimitWarning()) {
-                skipCalls++;
-                if (skipCalls % RACHIO_RATE_SKIP_CALLS > 0) {
-                    logger.info("RachioBridge: API result is getting critical -> skip update ({} / {})", skipCalls,
-                            RACHIO_RATE_SKIP_CALLS);
-                    return;
-                }
-            }
             if (this.getThing().getStatus() != ThingStatus.ONLINE) {
                 logger.debug("RachioBridgeHandler: Bridge is ONLINE");
                 updateStatus(ThingStatus.ONLINE);
             }
 
-            HashMap<String, RachioDevice> checkDevList = checkApi.getDevices();
+            if (isModelChanged(deviceList, checkDevList)) {
+                // controllers or zones were added, removed or renamed (e.g. while openHAB was down)
+                logger.info("RachioBridge: Controllers or zones changed in the Rachio account, updating things");
+                initializeModel(checkDevList);
+                rachioApi.publishDevices(checkDevList);
+                republishModel();
+                rachioApi.saveSnapshot();
+                return;
+            }
+
             for (HashMap.Entry<String, RachioDevice> de : checkDevList.entrySet()) {
                 RachioDevice checkDev = de.getValue();
                 RachioDevice dev = deviceList.get(checkDev.id);
-                if (dev == null) {
-                    logger.info("RachioBridge: New device detected: '{}' - '{}'", checkDev.id, checkDev.name);
-                } else {
-                    if (!dev.compare(checkDev)) {
-                        logger.trace("RachioBridge: Update data for device '{}'", dev.name);
-                        if (dev.getThingHandler() != null) {
-                            dev.getThingHandler().onThingStateChangedl(checkDev, null);
-                        } else {
-                            rachioStatusListeners.stream().forEach(l -> l.onThingStateChangedl(checkDev, null));
-                        }
-                    } else {
-                        logger.trace("RachioBridge: Device '{}' was not updaterd", checkDev.id);
-                    }
-
-                    HashMap<String, RachioZone> zoneList = dev.getZones();
-                    HashMap<String, RachioZone> checkZoneList = dev.getZones();
-                    for (HashMap.Entry<String, RachioZone> ze : checkZoneList.entrySet()) {
-                        RachioZone checkZone = ze.getValue();
-                        RachioZone zone = zoneList.get(checkZone.id);
-                        if (zone == null) {
-                            logger.debug("RachioBridge: New zone detected: '{}' - '{}'", checkDev.id, checkZone.name);
-                        } else {
-                            if (!zone.compare(checkZone)) {
-                                logger.trace("RachioBridge: Update data for zone '{}'", zone.name);
-                                if (zone.getThingHandler() != null) {
-                                    zone.getThingHandler().onThingStateChangedl(checkDev, null);
-                                } else {
-                                    rachioStatusListeners.stream().forEach(l -> l.onThingStateChangedl(checkDev, null));
-                                }
-                            } else {
-                                logger.trace("RachioBridge: Zone '{}' was not updated.", checkZone.id);
-                            }
-                        } // elif (zone == null)
-                    } // for each zone
-                } // for each device
-            } // try
+                if (dev != null) {
+                    devices++;
+                    zones += checkDev.getZones().size(); // same zones, the model didn't change
+                    // serialized with the webhook events of the device, a stale poll can't overtake an event
+                    changes += eventQueue.runExclusive(dev.id, () -> updateDevice(dev, checkDev));
+                }
+            } // for each device
+            if (changes > 0) {
+                rachioApi.saveSnapshot();
+            }
         } catch (RachioApiException e) {
             errorMessage = e.toString();
+            // the cloud rejected the request (e.g. apikey revoked), don't stay ONLINE with stale data
+            cloudError = e.getApiResult().responseCode > 0;
         } catch (Throwable e) {
             errorMessage = e.getMessage();
         } finally {
             if (!errorMessage.isEmpty()) {
                 logger.error("RachioBridge: {}", errorMessage);
-                // updateStatus(ThingStatus.OFFLINE, ThingStatusDetail.COMMUNICATION_ERROR, errorMessage);
+                if (cloudError) {
+                    updateStatus(ThingStatus.OFFLINE, ThingStatusDetail.COMMUNICATION_ERROR, errorMessage);
+                }
             }
+            RachioFlightRecorder.commitPoll(jfrEvent, getThing().getUID().getId(), devices, zones, changes);
             jobPending = false;
         }
     } // refreshDeviceStatus()
 
+    /**
+     * Apply the polled data of a device and its zones to the existing objects
+     *
+     * @param dev Current device
+     * @param checkDev Device data read from the cloud
+     * @return number of changes
+     */
+    private int updateDevice(RachioDevice dev, RachioDevice checkDev) {
+        int changes = 0;
+        if (!dev.compare(checkDev)) {
+            changes++;
+            logger.trace("RachioBridge: Update data for device '{}'", dev.name);
+            if (dev.getThingHandler() != null) {
+                dev.getThingHandler().onThingStateChangedl(checkDev, null);
+            } else {
+                dev.update(checkDev);
+                rachioStatusListeners.stream().forEach(l -> l.onThingStateChangedl(checkDev, null));
+            }
+        } else {
+            logger.trace("RachioBridge: Device '{}' was not updaterd", checkDev.id);
+        }
+
+        HashMap<String, RachioZone> zoneList = dev.getZones();
+        HashMap<String, RachioZone> checkZoneList = checkDev.getZones();
+        for (HashMap.Entry<String, RachioZone> ze : checkZoneList.entrySet()) {
+            RachioZone checkZone = ze.getValue();
+            RachioZone zone = zoneList.get(checkZone.id);
+            if (zone != null) {
+                if (!zone.compare(checkZone)) {
+                    changes++;
+                    logger.trace("RachioBridge: Update data for zone '{}'", zone.name);
+                    if (zone.getThingHandler() != null) {
+                        zone.getThingHandler().onThingStateChangedl(null, checkZone);
+                    } else {
+                        zone.update(checkZone);
+                        rachioStatusListeners.stream().forEach(l -> l.onThingStateChangedl(null, checkZone));
+                    }
+                } else {
+                    logger.trace("RachioBridge: Zone '{}' was not updated.", checkZone.id);
+                }
+            } // if (zone != null)
+        } // for each zone
+        return changes;
+    }
+
+    /**
+     * Pass the BridgeUID to the devices and the device UIDs to the zones, the thing handlers look up their objects by
+     * UID
+     *
+     * @param deviceList Devices to be published
+     */
+    private void initializeModel(HashMap<String, RachioDevice> deviceList) {
+        ThingUID bridgeUID = getThing().getUID();
+        for (RachioDevice dev : deviceList.values()) {
+            ThingUID devThingUID = new ThingUID(THING_TYPE_DEVICE, bridgeUID, dev.getThingID());
+            dev.setUID(bridgeUID, devThingUID);
+            for (RachioZone zone : dev.getZones().values()) {
+                ThingUID zoneThingUID = new ThingUID(THING_TYPE_ZONE, bridgeUID, zone.getThingID());
+                zone.setUID(dev.getUID(), zoneThingUID);
+            }
+        }
+    }
+
+    /**
+     * Check if devices or zones were added, removed or renamed
+     *
+     * @return true: the model has to be rebuilt
+     */
+    private static boolean isModelChanged(HashMap<String, RachioDevice> deviceList,
+            HashMap<String, RachioDevice> checkDevList) {
+        if (!deviceList.keySet().equals(checkDevList.keySet())) {
+            return true;
+        }
+        for (RachioDevice checkDev : checkDevList.values()) {
+            RachioDevice dev = deviceList.get(checkDev.id);
+            if (!dev.name.equals(checkDev.name) || !dev.getZones().keySet().equals(checkDev.getZones().keySet())) {
+                return true;
+            }
+            for (RachioZone checkZone : checkDev.getZones().values()) {
+                if (!dev.getZones().get(checkZone.id).name.equals(checkZone.name)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * The device list was replaced: the child handlers attach to the new objects (as when the bridge goes ONLINE) and
+     * the discovery picks up new controllers and zones
+     */
+    private void republishModel() {
+        ThingStatusInfo statusInfo = getThing().getStatusInfo();
+        for (Thing thing : getThing().getThings()) {
+            ThingHandler handler = thing.getHandler();
+            if (handler != null) {
+                handler.bridgeStatusChanged(statusInfo);
+            }
+        }
+        RachioDiscoveryService discovery = discoveryService;
+        if (discovery != null) {
+            discovery.devicesChanged();
+        }
+    }
+
+    public void setDiscoveryService(RachioDiscoveryService discoveryService) {
+        this.discoveryService = discoveryService;
+    }
+
     public void shutdown() {
         logger.info("RachioBridge: Shutting down");
         updateStatus(ThingStatus.OFFLINE, ThingStatusDetail.BRIDGE_OFFLINE);
     }
 
+    /**
+     * Initialize the api from the snapshot saved by the last run
+     *
+     * @return true: devices restored, false: no snapshot, connect to the cloud
+     */
+    private boolean restoreSnapshot(RachioApi api) {
+        if (thingConfig.apikey.isEmpty()) {
+            return false;
+        }
+        try {
+            api.setApiUrl(thingConfig.apiUrl);
+            if (api.initializeFromSnapshot(thingConfig.apikey)) {
+                personId = api.getPersonId();
+                externalId = api.getExternalId(getThing().getUID());
+                logger.info("RachioBridge: Started from snapshot, revalidating with Rachio cloud");
+                return true;
+            }
+        } catch (RachioApiException e) {
+            logger.debug("RachioBridge: Unable to start from snapshot: {}", e.toString());
+        }
+        return false;
+    }
+
     /**
      * Create a new SleepIQ cloud service connection. If a connection already exists, it will be lost.
      *
@@ -280,40 +479,46 @@ public class RachioBridgeHandler extends ConfigStatusBridgeHandler {
                     "RachioBridgeHandler: Unable to connect to Rachio Cloud: apikey not set, check services/rachio.cfg!");
         }
 
-        if (api.initialize(thingConfig.apikey, this.getThing().getUID())) {
-            personId = api.getPersonId(); // cache personId, might throw exception
+        api.setApiUrl(thingConfig.apiUrl);
+        if (!api.initialize(thingConfig.apikey, this.getThing().getUID())) {
+            throw new RachioApiException("RachioBridgeHandler: Unable to initialize Rachio Cloud access");
         }
+        personId = api.getPersonId(); // cache personId, might throw exception
+        externalId = api.getExternalId(getThing().getUID());
     } // createCloudConnection()
 
     /**
      * puts the device into standby mode = disable watering, schedules etc.
      *
      * @param deviceId: Device (ID retrieved from initialization)
-     * @return true: successful, failed (check http error code)
+     * @return future completing with the api result or a RachioApiException
      */
-    public void disableDevice(String deviceId) throws RachioApiException {
-        rachioApi.disableDevice(deviceId);
+    public CompletableFuture<RachioApiResult> disableDevice(String deviceId) {
+        return commandQueue.submit(deviceId, RachioCommandQueue.CMD_ACTIVE, () -> rachioApi.disableDevice(deviceId));
     }
 
     /**
      * puts the device into run mode = watering, schedules etc.
      *
      * @param deviceId: Device (ID retrieved from initialization)
-     * @return true: successful, failed (check http error code)
+     * @return future completing with the api result or a RachioApiException
      */
-    public void enableDevice(String deviceId) throws RachioApiException {
-        rachioApi.enableDevice(deviceId);
+    public CompletableFuture<RachioApiResult> enableDevice(String deviceId) {
+        return commandQueue.submit(deviceId, RachioCommandQueue.CMD_ACTIVE, () -> rachioApi.enableDevice(deviceId));
     }
 
     /**
      * Stop watering for all zones, disable schedule etc. - puts the device into standby mode
      *
      * @param deviceId: Device (ID retrieved from initialization)
-     * @return true: successful, failed (check http error code)
-     * @return
+     * @return future completing with the api result or a RachioApiException
      */
-    public void stopWatering(String deviceId) throws RachioApiException {
-        rachioApi.stopWatering(deviceId);
+    public CompletableFuture<RachioApiResult> stopWatering(String deviceId) {
+        setWatering(0);
+        CompletableFuture<RachioApiResult> stop = commandQueue.submit(deviceId, RachioCommandQueue.CMD_STOP,
+                () -> rachioApi.stopWatering(deviceId));
+        commandBatcher.stopWatering(deviceId);
+        return stop;
     }
 
     /**
@@ -321,31 +526,38 @@ public class RachioBridgeHandler extends ConfigStatusBridgeHandler {
      *
      * @param deviceId: Device (ID retrieved from initialization)
      * @param delayTime: Number of seconds for rain delay sycle
-     * @return true: successful, failed (check http error code)
+     * @return future completing with the api result or a RachioApiException
      */
-    public void startRainDelay(String deviceId, int delayTime) throws RachioApiException {
-        rachioApi.rainDelay(deviceId, delayTime);
+    public CompletableFuture<RachioApiResult> startRainDelay(String deviceId, int delayTime) {
+        return commandQueue.submit(deviceId, RachioCommandQueue.CMD_RAIN_DELAY,
+                () -> rachioApi.rainDelay(deviceId, delayTime));
     }
 
     /**
      * Start watering for multiple zones.
      *
+     * @param deviceId: Device the zones belong to
      * @param zoneListJson: Contains a list of { "id": n} with the zone ids to start
-     * @return true: successful, failed (check http error code)
+     * @return future completing with the api result or a RachioApiException
      */
-    public void runMultipleZones(String zoneListJson) throws RachioApiException {
-        rachioApi.runMultilpeZones(zoneListJson);
+    public CompletableFuture<RachioApiResult> runMultipleZones(String deviceId, String zoneListJson) {
+        setWatering(getDefaultRuntime()); // estimate, the webhook events provide the exact timing
+        return commandQueue.submit(deviceId, RachioCommandQueue.CMD_RUN,
+                () -> rachioApi.runMultilpeZones(zoneListJson));
     }
 
     /**
-     * Start a single zone for given number of seconds.
+     * Start a single zone for given number of seconds. Zones of the same device started within the command window are
+     * merged into a single request.
      *
+     * @param deviceId: Device the zone belongs to
      * @param zoneId: Rachio Cloud Zone ID
      * @param runTime: Number of seconds to run
-     * @return true: successful, failed (check http error code)
+     * @return future completing with the api result or a RachioApiException
      */
-    public void startZone(String zoneId, int runTime) throws RachioApiException {
-        rachioApi.runZone(zoneId, runTime);
+    public CompletableFuture<RachioApiResult> startZone(String deviceId, String zoneId, int runTime) {
+        setWatering(runTime);
+        return commandBatcher.startZone(deviceId, zoneId, runTime);
     }
 
     //
@@ -419,6 +631,9 @@ public class RachioBridgeHandler extends ConfigStatusBridgeHandler {
      * @return HashMap of RachioDevice
      */
     public HashMap<String, RachioDevice> getDevices() {
+        if (!modelReady) {
+            return null;
+        }
         try {
             return rachioApi.getDevices();
         } catch (Exception e) {
@@ -434,6 +649,9 @@ public class RachioBridgeHandler extends ConfigStatusBridgeHandler {
      * @return RachioDevice for that device Thing UID
      */
     public RachioDevice getDevByUID(ThingUID thingUID) {
+        if (!modelReady) {
+            return null;
+        }
         return rachioApi.getDevByUID(getThing().getUID(), thingUID);
     }
 
@@ -444,22 +662,83 @@ public class RachioBridgeHandler extends ConfigStatusBridgeHandler {
      * @return
      */
     public RachioZone getZoneByUID(ThingUID thingUID) {
+        if (!modelReady) {
+            return null;
+        }
         return rachioApi.getZoneByUID(getThing().getUID(), thingUID);
     }
 
     /**
-     * Register a webhook at Rachio Cloud for the given deviceID. The webhook triggers our servlet to popolate device &
-     * zones events.
-     *
-     * @param deviceId: Matching device ID (as retrieved from device initialization)
-     * @return trtue: successful, false: failed (check http error code)
+     * Reconcile the webhooks of all devices at Rachio Cloud. The webhook triggers our servlet to popolate device &
+     * zones events. Only the required changes are sent to the cloud (see RachioWebHookReconciler).
      */
-    public void registerWebHook(String deviceId) throws RachioApiException {
+    public void reconcileWebHooks() {
         if (getCallbackUrl().equals("")) {
             logger.trace("RachioApi: No callbackUrl configured.");
-        } else {
-            rachioApi.registerWebHook(deviceId, getCallbackUrl(), getExternalId(), getClearAllCallbacks());
+            pollScheduler.setWebHookRegistered(false);
+            return;
+        }
+        try {
+            HashMap<String, RachioDevice> deviceList = getDevices();
+            List<String> deviceIds = new ArrayList<>();
+            for (RachioDevice dev : deviceList.values()) {
+                deviceIds.add(dev.id);
+            }
+            rachioApi.reconcileWebHooks(deviceIds, getCallbackUrl(), getExternalId(), getClearAllCallbacks());
+            pollScheduler.setWebHookRegistered(true);
+        } catch (RachioApiException e) {
+            logger.warn("RachioBridge: Unable to register webhooks, using polling: {}", e.toString());
+            pollScheduler.setWebHookRegistered(false);
+        }
+    }
+
+    /**
+     * Queue an inbound WebHook event, it's processed by the event queue in order per device
+     *
+     * @param event
+     * @return true: event was queued, false: dropped (duplicate or queue full)
+     */
+    public boolean queueEvent(RachioEvent event) {
+        if (eventDedup.isDuplicate(event)) {
+            logger.debug("RachioBridge: Duplicate event {}.{} for device '{}' dropped (id={}, sequence={})", event.type,
+                    event.subType, event.deviceId, event.id, event.sequence);
+            RachioMetrics.recordEvent(event.type, RachioMetrics.EVENT_DUPLICATE);
+            return false;
+        }
+        RachioEvent dropped = eventQueue.offer(event);
+        if (dropped != null) {
+            eventDedup.remove(dropped); // not processed, accept a redelivery
+        }
+        return dropped != event;
+    }
+
+    /**
+     * Process a queued WebHook event
+     *
+     * @param event
+     */
+    private void processEvent(RachioEvent event) {
+        long started = System.nanoTime();
+        boolean routed = webHookEvent(event);
+        RachioMetrics.recordEvent(event.type, routed ? RachioMetrics.EVENT_ROUTED : RachioMetrics.EVENT_REJECTED);
+        RachioFlightRecorder.commitWebHook(event.jfrEvent, event.type, event.deviceId, routed,
+                event.parsedNanos - event.receivedNanos, event.queuedNanos - event.parsedNanos,
+                started - event.queuedNanos, event.handlerNanos);
+    }
+
+    /**
+     * Events were dropped or processed out of order, poll soon to get the current state
+     */
+    private synchronized void resyncEvents() {
+        if (rachioStatusListeners.isEmpty() || ((pollingJob != null) && !pollingJob.isDone()
+                && (pollingJob.getDelay(TimeUnit.SECONDS) <= RACHIO_EVENT_RESYNC_DELAY))) {
+            return;
+        }
+        if (pollingJob != null) {
+            pollingJob.cancel(false);
         }
+        logger.debug("RachioBridge: Webhook events dropped or late, poll in {}s", RACHIO_EVENT_RESYNC_DELAY);
+        pollingJob = scheduler.schedule(pollingRunnable, RACHIO_EVENT_RESYNC_DELAY, TimeUnit.SECONDS);
     }
 
     /**
@@ -470,47 +749,103 @@ public class RachioBridgeHandler extends ConfigStatusBridgeHandler {
      */
     public boolean webHookEvent(RachioEvent event) {
         try {
+            pollScheduler.webHookEventReceived();
+
             HashMap<String, RachioDevice> deviceList = getDevices();
+            if (deviceList == null) {
+                // the next poll after the model was published gets the current state
+                logger.debug("RachioEvent: Devices not initialized yet, event {}.{} for device '{}' ignored",
+                        event.type, event.subType, event.deviceId);
+                return false;
+            }
             for (HashMap.Entry<String, RachioDevice> de : deviceList.entrySet()) {
                 RachioDevice dev = de.getValue();
                 if (dev.id.equalsIgnoreCase(event.deviceId) && (dev.getThingHandler() != null)) {
-                    return dev.getThingHandler().webhookEvent(event);
+                    event.decode(); // the servlet decoded only the routing fields
+                    updateWateringState(event);
+                    long started = System.nanoTime();
+                    boolean processed = dev.getThingHandler().webhookEvent(event);
+                    event.handlerNanos = System.nanoTime() - started;
+                    RachioMetrics.recordDispatch(event.receivedNanos);
+                    return processed;
                 }
             }
-            logger.debug("RachioEvent {}.{} for unknown device '{}': {}", event.category, event.type, event.deviceId,
-                    event.summary);
+            logger.debug("RachioEvent {}.{} for unknown device '{}'", event.type, event.subType, event.deviceId);
         } catch (Throwable e) {
-            logger.error("RachioEvent: Unable to process event {}.{} for device '{}': {}", event.category, event.type,
+            logger.error("RachioEvent: Unable to process event {}.{} for device '{}': {}", event.type, event.subType,
                     event.deviceId, e.getMessage());
         }
         return false;
     }
 
     public String getExternalId() {
-        return rachioApi.getExternalId();
+        return externalId;
+    }
+
+    /**
+     * Track zone/schedule runs to poll faster while watering
+     *
+     * @param event Inbound webhook event
+     */
+    private void updateWateringState(RachioEvent event) {
+        if (event.type.equals("ZONE_STATUS") || event.type.equals("SCHEDULE_STATUS")) {
+            if (event.subType.equals("ZONE_STARTED") || event.subType.equals("SCHEDULE_STARTED")) {
+                setWatering(event.duration);
+            } else if (event.subType.equals("ZONE_STOPPED") || event.subType.equals("SCHEDULE_STOPPED")
+                    || event.subType.equals("SCHEDULE_COMPLETED")) {
+                setWatering(0);
+            }
+        }
+    }
+
+    private void setWatering(int duration) {
+        boolean watering = pollScheduler.isWatering();
+        pollScheduler.setWatering(duration);
+        if (!watering && pollScheduler.isWatering()) {
+            schedulePolling(true);
+        }
     }
 
     /**
-     * Start or stop a background polling job to look for bed status updates based on whether or not there are any
+     * Start or stop a background polling job to look for device status updates based on whether or not there are any
      * listeners to notify.
      */
     private synchronized void updateListenerManagement() {
         if (!rachioStatusListeners.isEmpty() && (pollingJob == null || pollingJob.isCancelled())) {
-            pollingJob = scheduler.scheduleWithFixedDelay(pollingRunnable, getPollingInterval(), getPollingInterval(),
-                    TimeUnit.SECONDS);
+            schedulePolling(false);
         } else if (rachioStatusListeners.isEmpty() && pollingJob != null && !pollingJob.isCancelled()) {
             pollingJob.cancel(true);
             pollingJob = null;
         }
     }
 
+    /**
+     * Schedule the next poll. The delay depends on the remaining API calls and the watering/webhook state.
+     *
+     * @param reschedule true: replace a pending poll if the new delay is shorter
+     */
+    private synchronized void schedulePolling(boolean reschedule) {
+        if (rachioStatusListeners.isEmpty()) {
+            return;
+        }
+        long delay = pollScheduler.getNextDelay(rachioApi.getLastApiResult());
+        if ((pollingJob != null) && !pollingJob.isDone()) {
+            if (!reschedule || (pollingJob.getDelay(TimeUnit.SECONDS) <= delay)) {
+                return;
+            }
+            pollingJob.cancel(false);
+        }
+        logger.trace("RachioBridge: Next poll in {}s", delay);
+        pollingJob = scheduler.schedule(pollingRunnable, delay, TimeUnit.SECONDS);
+    }
+
     /**
      * Register the given listener to receive device status updates.
      *
      * @param listener the listener to register
      */
     public void registerStatusListener(final RachioStatusListener listener) {
-        if (listener == null) {
+        if ((listener == null) || rachioStatusListeners.contains(listener)) {
             return;
         }
 
@@ -573,6 +908,25 @@ public class RachioBridgeHandler extends ConfigStatusBridgeHandler {
         }
     }
 
+    /**
+     * Update the metric channels (only linked ones)
+     */
+    private void updateMetricChannels() {
+        String bridgeId = getThing().getUID().getId();
+        if (isLinked(CHANNEL_CLOUD_API_CALLS)) {
+            updateState(CHANNEL_CLOUD_API_CALLS, new DecimalType(RachioMetrics.getApiCalls()));
+        }
+        if (isLinked(CHANNEL_CLOUD_RATE_REMAINING) && (RachioMetrics.getRateRemaining(bridgeId) >= 0)) {
+            updateState(CHANNEL_CLOUD_RATE_REMAINING, new DecimalType(RachioMetrics.getRateRemaining(bridgeId)));
+        }
+        if (isLinked(CHANNEL_CLOUD_POLL_DURATION) && (RachioMetrics.getLastPollDuration(bridgeId) >= 0)) {
+            updateState(CHANNEL_CLOUD_POLL_DURATION, new DecimalType(RachioMetrics.getLastPollDuration(bridgeId)));
+        }
+        if (isLinked(CHANNEL_CLOUD_EVENTS)) {
+            updateState(CHANNEL_CLOUD_EVENTS, new DecimalType(RachioMetrics.getEventsRouted()));
+        }
+    }
+
     //
     // ------ Internal stuff
     //
@@ -580,13 +934,34 @@ public class RachioBridgeHandler extends ConfigStatusBridgeHandler {
     private Runnable pollingRunnable = new Runnable() {
         @Override
         public void run() {
+            String bridgeId = getThing().getUID().getId();
+            long started = System.nanoTime();
             refreshDeviceStatus();
+            RachioMetrics.recordPoll(bridgeId, System.nanoTime() - started);
+            RachioMetrics.recordRateLimit(bridgeId, rachioApi.getLastApiResult());
+            RachioMetrics.recordCommandQueue(bridgeId, commandQueue);
+            updateMetricChannels();
+            synchronized (RachioBridgeHandler.this) {
+                pollingJob = null;
+                schedulePolling(false);
+            }
         }
     };
 
     @Override
     public synchronized void dispose() {
         logger.debug("RachioBridgeHandler: Disposing Rachio cloud handler");
+        state = RachioBridgeState.DISPOSED;
+        modelReady = false;
+        if (connectJob != null) {
+            connectJob.cancel(true);
+            connectJob = null;
+        }
+        commandBatcher.dispose();
+        commandQueue.dispose();
+        eventQueue.dispose();
+        eventDedup.clear();
+        RachioMetrics.removeBridge(getThing().getUID().getId());
 
         if (pollingJob != null && !pollingJob.isCancelled()) {
             pollingJob.cancel(true);
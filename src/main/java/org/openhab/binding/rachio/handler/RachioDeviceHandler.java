@@ -74,27 +74,22 @@ public class RachioDeviceHandler extends BaseThingHandler implements RachioStatu
                 ThingHandler handler = bridge.getHandler();
                 if ((handler != null) && (handler instanceof RachioBridgeHandler)) {
                     cloudHandler = (RachioBridgeHandler) handler;
-                    dev = cloudHandler.getDevByUID(this.getThing().getUID());
-                    if (dev != null) {
-                        dev.setThingHandler(this);
-                        cloudHandler.registerStatusListener(this);
-                        cloudHandler.registerWebHook(dev.id);
-                        if (bridge.getStatus() != ThingStatus.ONLINE) {
-                            logger.debug("Rachio: Bridge is offline!");
-                            updateStatus(ThingStatus.OFFLINE, ThingStatusDetail.BRIDGE_OFFLINE);
-                        } else {
-                            updateProperties();
-                            updateStatus(dev.getStatus());
-                            logger.debug("RachioDevice: Rachio device '{}' initialized.",
-                                    getThing().getUID().getAsString());
-                            return;
-                        }
+                    if (bridge.getStatus() != ThingStatus.ONLINE) {
+                        // the bridge is still connecting, attach when it goes ONLINE (see bridgeStatusChanged())
+                        logger.debug("Rachio: Bridge is offline!");
+                        updateStatus(ThingStatus.OFFLINE, ThingStatusDetail.BRIDGE_OFFLINE);
+                        return;
+                    }
+                    if (attachDevice()) {
+                        updateProperties();
+                        updateStatus(dev.getStatus());
+                        logger.debug("RachioDevice: Rachio device '{}' initialized.",
+                                getThing().getUID().getAsString());
+                        return;
                     }
                 }
             }
             errorMessage = "Initialisation failed";
-        } catch (RachioApiException e) {
-            errorMessage = e.toString();
         } catch (Throwable e) {
             if (e.getMessage() != null) {
                 errorMessage = e.getMessage();
@@ -102,11 +97,33 @@ public class RachioDeviceHandler extends BaseThingHandler implements RachioStatu
         } finally {
             if (!errorMessage.isEmpty()) {
                 logger.error("RachioBridge: {}", errorMessage);
+                updateStatus(ThingStatus.OFFLINE, ThingStatusDetail.COMMUNICATION_ERROR, errorMessage);
             }
-            updateStatus(ThingStatus.OFFLINE, ThingStatusDetail.COMMUNICATION_ERROR, errorMessage);
         }
     } // initialize()
 
+    /**
+     * Attach to the device object of the bridge's model. The model is replaced when the bridge (re-)connects, so the
+     * lookup is repeated each time the bridge goes ONLINE.
+     *
+     * @return true: device found
+     */
+    private boolean attachDevice() {
+        if (cloudHandler == null) {
+            return false;
+        }
+        RachioDevice device = cloudHandler.getDevByUID(this.getThing().getUID());
+        if (device == null) {
+            return false;
+        }
+        if (device != dev) {
+            dev = device;
+            dev.setThingHandler(this);
+        }
+        cloudHandler.registerStatusListener(this);
+        return true;
+    }
+
     @SuppressWarnings("null")
     @Override
     public void handleCommand(ChannelUID channelUID, Command command) {
@@ -127,10 +144,10 @@ public class RachioDeviceHandler extends BaseThingHandler implements RachioStatu
                 if (command instanceof OnOffType) {
                     if (command == OnOffType.OFF) {
                         logger.info("RachioDevice: Pause device '{}' (disable watering, schedules etc.)", dev.name);
-                        cloudHandler.disableDevice(dev.id);
+                        cloudHandler.disableDevice(dev.id).whenComplete((result, e) -> commandCompleted(e));
                     } else {
                         logger.info("RachioDevice: Resume device '{}' (enable watering, schedules etc.)", dev.name);
-                        cloudHandler.enableDevice(dev.id);
+                        cloudHandler.enableDevice(dev.id).whenComplete((result, e) -> commandCompleted(e));
                     }
                 } else {
                     logger.debug("RachioDevice: command value is no OnOffType: {}", command);
@@ -153,25 +170,29 @@ public class RachioDeviceHandler extends BaseThingHandler implements RachioStatu
             } else if (channel.equals(RachioBindingConstants.CHANNEL_DEVICE_RUN)) {
                 if (command == OnOffType.ON) {
                     logger.info("RachioDevice: START watering zones '{}' ('' = ALL)", dev.getRunZones());
-                    cloudHandler.runMultipleZones(dev.getAllRunZonesJson(cloudHandler.getDefaultRuntime()));
+                    cloudHandler.runMultipleZones(dev.id, dev.getAllRunZonesJson(cloudHandler.getDefaultRuntime()))
+                            .whenComplete((result, e) -> commandCompleted(e));
                 }
             } else if (channel.equals(RachioBindingConstants.CHANNEL_DEVICE_STOP)) {
                 if (command == OnOffType.ON) {
                     logger.info("RachioDevice: STOP watering for device '{}'", dev.name);
-                    cloudHandler.stopWatering(dev.id);
-                    updateState(RachioBindingConstants.CHANNEL_DEVICE_STOP, OnOffType.OFF);
+                    cloudHandler.stopWatering(dev.id).whenComplete((result, e) -> {
+                        if (e == null) {
+                            updateState(RachioBindingConstants.CHANNEL_DEVICE_STOP, OnOffType.OFF);
+                        }
+                        commandCompleted(e);
+                    });
                 }
             } else if (channel.equals(RachioBindingConstants.CHANNEL_DEVICE_RAIN_DELAY)) {
                 if (command instanceof DecimalType) {
                     logger.info("RachioDevice: Start rain delay cycle for {} sec", command.toString());
                     dev.setRainDelayTime(((DecimalType) command).intValue());
-                    cloudHandler.startRainDelay(dev.id, ((DecimalType) command).intValue());
+                    cloudHandler.startRainDelay(dev.id, ((DecimalType) command).intValue())
+                            .whenComplete((result, e) -> commandCompleted(e));
                 } else {
                     logger.debug("RachioDevice: command value is no DecimalType: {}", command);
                 }
             }
-        } catch (RachioApiException e) {
-            errorMessage = e.toString();
         } catch (Throwable e) {
             errorMessage = e.getMessage();
         } finally {
@@ -182,6 +203,21 @@ public class RachioDeviceHandler extends BaseThingHandler implements RachioStatu
         }
     } // handleCommand()
 
+    /**
+     * Called when an asynchronous cloud command completes, sets the thing OFFLINE if the command failed
+     *
+     * @param e Exception if the call failed, null on success
+     */
+    private void commandCompleted(@Nullable Throwable e) {
+        if ((e != null) && RachioApiException.isSuperseded(e)) {
+            logger.debug("RachioDevice.handleCommand: {}", RachioApiException.getErrorMessage(e));
+        } else if (e != null) {
+            String errorMessage = RachioApiException.getErrorMessage(e);
+            logger.error("RachioDevice.handleCommand: {}", errorMessage);
+            updateStatus(ThingStatus.OFFLINE, ThingStatusDetail.COMMUNICATION_ERROR, errorMessage);
+        }
+    }
+
     @SuppressWarnings("null")
     private void postChannelData() {
         if (dev != null) {
@@ -242,6 +278,11 @@ public class RachioDeviceHandler extends BaseThingHandler implements RachioStatu
 
         logger.debug("RachioDeviceHandler: Bridge Status changed to {}", bridgeStatusInfo.getStatus());
         if (bridgeStatusInfo.getStatus() == ThingStatus.ONLINE) {
+            if (!attachDevice()) {
+                updateStatus(ThingStatus.OFFLINE, ThingStatusDetail.CONFIGURATION_ERROR,
+                        "Device not found in the Rachio account");
+                return;
+            }
             updateProperties();
             postChannelData();
             updateStatus(dev.getStatus());
@@ -77,26 +77,20 @@ public class RachioZoneHandler extends BaseThingHandler implements RachioStatusL
                 ThingHandler handler = bridge.getHandler();
                 if ((handler != null) && (handler instanceof RachioBridgeHandler)) {
                     cloudHandler = (RachioBridgeHandler) handler;
-                    zone = cloudHandler.getZoneByUID(this.getThing().getUID());
-                    if (zone != null) {
-                        zone.setThingHandler(this);
-                        dev = cloudHandler.getDevByUID(zone.getDevUID());
-                    }
                 }
             }
-            if ((bridge == null) || (cloudHandler == null) || (dev == null) || (zone == null)) {
+            if ((bridge != null) && (cloudHandler != null) && (bridge.getStatus() != ThingStatus.ONLINE)) {
+                // the bridge is still connecting, attach when it goes ONLINE (see bridgeStatusChanged())
+                logger.debug("Rachio: Bridge is offline!");
+                updateStatus(ThingStatus.OFFLINE, ThingStatusDetail.BRIDGE_OFFLINE);
+                return;
+            }
+            if (!attachZone()) {
                 logger.debug("RachioZone: Thing initialisation failed!");
             } else {
-                // listen to bridge events
-                cloudHandler.registerStatusListener(this);
-                if (bridge.getStatus() != ThingStatus.ONLINE) {
-                    logger.debug("Rachio: Bridge is offline!");
-                    updateStatus(ThingStatus.OFFLINE, ThingStatusDetail.BRIDGE_OFFLINE);
-                } else {
-                    updateProperties();
-                    updateStatus(dev.getStatus());
-                    return;
-                }
+                updateProperties();
+                updateStatus(dev.getStatus());
+                return;
             }
         } catch (Exception e) {
             logger.error("RachioZone: Initialisation failed: {}", e.getMessage());
@@ -105,6 +99,31 @@ public class RachioZoneHandler extends BaseThingHandler implements RachioStatusL
         updateStatus(ThingStatus.OFFLINE);
     } // initialize()
 
+    /**
+     * Attach to the zone and device objects of the bridge's model. The model is replaced when the bridge
+     * (re-)connects, so the lookup is repeated each time the bridge goes ONLINE.
+     *
+     * @return true: zone and device found
+     */
+    private boolean attachZone() {
+        if (cloudHandler == null) {
+            return false;
+        }
+        RachioZone z = cloudHandler.getZoneByUID(this.getThing().getUID());
+        RachioDevice d = z != null ? cloudHandler.getDevByUID(z.getDevUID()) : null;
+        if ((z == null) || (d == null)) {
+            return false;
+        }
+        if (z != zone) {
+            zone = z;
+            zone.setThingHandler(this);
+        }
+        dev = d;
+        // listen to bridge events
+        cloudHandler.registerStatusListener(this);
+        return true;
+    }
+
     @SuppressWarnings("null")
     @Override
     public void handleCommand(ChannelUID channelUID, Command command) {
@@ -141,10 +160,11 @@ public class RachioZoneHandler extends BaseThingHandler implements RachioStatusL
                             runtime = cloudHandler.getDefaultRuntime();
                             logger.debug("RachioZone: No specific runtime selected, using default ({} secs);", runtime);
                         }
-                        cloudHandler.startZone(zone.id, runtime);
+                        cloudHandler.startZone(dev.id, zone.id, runtime)
+                                .whenComplete((result, e) -> commandCompleted(e));
                     } else {
                         logger.info("RachioZone: Stop watering for the device");
-                        cloudHandler.stopWatering(dev.id);
+                        cloudHandler.stopWatering(dev.id).whenComplete((result, e) -> commandCompleted(e));
                     }
                 } else {
                     logger.debug("RachioZone: command value for {} is no OnOffType: {}", channel, command);
@@ -158,8 +178,6 @@ public class RachioZoneHandler extends BaseThingHandler implements RachioStatusL
                     logger.debug("RachioZone: command value is no DecimalType: {}", command);
                 }
             }
-        } catch (RachioApiException e) {
-            errorMessage = e.toString();
         } catch (Throwable e) {
             errorMessage = e.getMessage();
             if (errorMessage == null) {
@@ -173,6 +191,21 @@ public class RachioZoneHandler extends BaseThingHandler implements RachioStatusL
         }
     } // handleCommand()
 
+    /**
+     * Called when an asynchronous cloud command completes, sets the thing OFFLINE if the command failed
+     *
+     * @param e Exception if the call failed, null on success
+     */
+    private void commandCompleted(@Nullable Throwable e) {
+        if ((e != null) && RachioApiException.isSuperseded(e)) {
+            logger.debug("RachioZoneHandler: {}", RachioApiException.getErrorMessage(e));
+        } else if (e != null) {
+            String errorMessage = RachioApiException.getErrorMessage(e);
+            logger.error("RachioZoneHandler: {}", errorMessage);
+            updateStatus(ThingStatus.OFFLINE, ThingStatusDetail.COMMUNICATION_ERROR, errorMessage);
+        }
+    }
+
     @SuppressWarnings("null")
     @Override
     public boolean onThingStateChangedl(@Nullable RachioDevice updatedDev, @Nullable RachioZone updatedZone) {
@@ -284,6 +317,11 @@ public class RachioZoneHandler extends BaseThingHandler implements RachioStatusL
 
         logger.trace("RachioZoneHandler: Bridge Status changed to {}", bridgeStatusInfo.getStatus());
         if (bridgeStatusInfo.getStatus() == ThingStatus.ONLINE) {
+            if (!attachZone()) {
+                updateStatus(ThingStatus.OFFLINE, ThingStatusDetail.CONFIGURATION_ERROR,
+                        "Zone not found in the Rachio account");
+                return;
+            }
             updateProperties();
             updateStatus(dev.getStatus());
             postChannelData();
@@ -38,6 +38,10 @@ public class RachioConfiguration {
     public String callbackUrl = "";
     public Boolean clearAllCallbacks = false;
     public String ipFilter = "192.168.0.0/16;10.0.0.0/8;172.16.0.0/12";
+    public int commandWindow = DEFAULT_COMMAND_WINDOW;
+    public String apiUrl = APIURL_BASE;
+    public int eventQueueSize = DEFAULT_EVENT_QUEUE_SIZE;
+    public String eventQueueOverflow = DEFAULT_EVENT_QUEUE_OVERFLOW;
 
     public void updateConfig(Map<String, Object> config) {
         for (HashMap.Entry<String, Object> ce : config.entrySet()) {
@@ -65,6 +69,14 @@ public class RachioConfiguration {
             } else if (key.equalsIgnoreCase(PARAM_CLEAR_CALLBACK)) {
                 String str = value;
                 this.clearAllCallbacks = str.toLowerCase().equals("true");
+            } else if (key.equalsIgnoreCase(PARAM_COMMAND_WINDOW)) {
+                this.commandWindow = Integer.parseInt(value);
+            } else if (key.equalsIgnoreCase(PARAM_API_URL)) {
+                this.apiUrl = value;
+            } else if (key.equalsIgnoreCase(PARAM_EVENT_QUEUE_SIZE)) {
+                this.eventQueueSize = Integer.parseInt(value);
+            } else if (key.equalsIgnoreCase(PARAM_EVENT_QUEUE_OVERFLOW)) {
+                this.eventQueueOverflow = value;
             }
         }
     } // RachioBindingConfiguration
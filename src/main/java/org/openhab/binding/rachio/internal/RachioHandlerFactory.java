@@ -16,8 +16,10 @@ import static org.openhab.binding.rachio.RachioBindingConstants.*;
 
 import java.util.HashMap;
 import java.util.Hashtable;
+import java.util.List;
 import java.util.Map;
 
+import org.apache.commons.net.util.SubnetUtils.SubnetInfo;
 import org.eclipse.jdt.annotation.Nullable;
 import org.eclipse.smarthome.config.discovery.DiscoveryService;
 import org.eclipse.smarthome.core.thing.Bridge;
@@ -27,15 +29,22 @@ import org.eclipse.smarthome.core.thing.ThingUID;
 import org.eclipse.smarthome.core.thing.binding.BaseThingHandlerFactory;
 import org.eclipse.smarthome.core.thing.binding.ThingHandler;
 import org.eclipse.smarthome.core.thing.binding.ThingHandlerFactory;
+import org.eclipse.smarthome.io.net.http.HttpClientFactory;
 import org.openhab.binding.rachio.handler.RachioBridgeHandler;
 import org.openhab.binding.rachio.handler.RachioDeviceHandler;
 import org.openhab.binding.rachio.handler.RachioZoneHandler;
 import org.openhab.binding.rachio.internal.api.RachioEvent;
+import org.openhab.binding.rachio.internal.api.RachioHttp;
+import org.openhab.binding.rachio.internal.api.RachioJettyTransport;
+import org.openhab.binding.rachio.internal.api.RachioMetrics;
+import org.openhab.binding.rachio.internal.api.RachioTransport;
 import org.openhab.binding.rachio.internal.discovery.RachioDiscoveryService;
 import org.osgi.framework.ServiceRegistration;
 import org.osgi.service.component.ComponentContext;
 import org.osgi.service.component.annotations.Activate;
 import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Deactivate;
+import org.osgi.service.component.annotations.Reference;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -59,6 +68,10 @@ public class RachioHandlerFactory extends BaseThingHandlerFactory {
     private final HashMap<String, RachioBridge> bridgeList;
     private final RachioConfiguration bindingConfig = new RachioConfiguration();
     private final RachioNetwork rachioNetwork = new RachioNetwork();
+    private String parsedIpFilter = null;
+    private List<SubnetInfo> ipFilterSubnets = null;
+    private HttpClientFactory httpClientFactory;
+    private RachioTransport httpTransport;
 
     /**
      * OSGi activation callback.
@@ -70,9 +83,40 @@ public class RachioHandlerFactory extends BaseThingHandlerFactory {
         super.activate(componentContext);
         logger.debug("RachioBridge: Activate, configurarion (services/rachio.cfg):");
         bindingConfig.updateConfig(configProperties);
+        initializeHttpTransport();
         rachioNetwork.initializeAwsList(); // Load list of AWS IP address ranges
     }
 
+    /**
+     * OSGi deactivation callback.
+     */
+    @Deactivate
+    protected void deactivate(ComponentContext componentContext) {
+        RachioHttp.setDefaultTransport(null); // fall back to HttpURLConnection
+        if (httpTransport != null) {
+            httpTransport.dispose();
+            httpTransport = null;
+        }
+        super.deactivate(componentContext);
+    }
+
+    /**
+     * Create the pooled http client shared by all RachioHttp instances. If this fails RachioHttp keeps using
+     * HttpURLConnection.
+     */
+    private void initializeHttpTransport() {
+        if ((httpClientFactory == null) || (httpTransport != null)) {
+            return;
+        }
+        try {
+            httpTransport = new RachioJettyTransport(httpClientFactory.createHttpClient(HTTP_CLIENT_NAME));
+            RachioHttp.setDefaultTransport(httpTransport);
+        } catch (Exception e) {
+            logger.warn("RachioHandlerFactory: Unable to start pooled http client, using fallback: {}",
+                    e.getMessage());
+        }
+    }
+
     public RachioHandlerFactory() {
         logger.debug("RachioHandlerFactory: Initialized Rachio Thing handler.");
         bridgeList = new HashMap<String, RachioBridge>();
@@ -122,28 +166,46 @@ public class RachioHandlerFactory extends BaseThingHandlerFactory {
     }
 
     /**
-     * Called from the webhook servlet. event.externalId is used to route the event to the corresponding bridge handler
+     * Called from the webhook servlet before the request body is read
      *
-     * @param event
+     * @param ipAddress Source of the webhook request
+     * @return true: ip address matches the ipFilter or is in the AWS address ranges
      */
-    public boolean webHookEvent(String ipAddress, RachioEvent event) {
+    public boolean isTrustedSource(String ipAddress) {
         try {
-            logger.trace("RachioEvent: Event for device '{}' received", event.deviceId);
-            if (!RachioNetwork.isIpInSubnet(ipAddress, getIpFilter()) && !rachioNetwork.isIpInAwsList(ipAddress)) {
-                logger.error("RachioBridge: Request from unknown IP address range, might be abuse! Request rejected");
-                return false;
+            String ipFilter = getIpFilter();
+            if (ipFilter.isEmpty() || RachioNetwork.isIpInSubnet(ipAddress, getIpFilterSubnets(ipFilter))
+                    || rachioNetwork.isIpInAwsList(ipAddress)) {
+                return true;
             }
+            logger.error("RachioBridge: Request from unknown IP address range, might be abuse! Request rejected");
+        } catch (Exception e) {
+            logger.error("RachioEvent: Unable to verify source ip address: {}", e.getMessage());
+        }
+        return false;
+    }
 
-            // event.setEventParms();// process event parameters
+    /**
+     * Called from the webhook servlet. event.externalId is used to route the event to the corresponding bridge handler.
+     * Only the routing fields of the event are decoded at this point (see RachioEvent.decode()).
+     *
+     * @param event
+     * @return true: event was queued by the bridge
+     */
+    public boolean webHookEvent(RachioEvent event) {
+        try {
+            logger.trace("RachioEvent: Event for device '{}' received", event.deviceId);
             for (HashMap.Entry<String, RachioBridge> be : bridgeList.entrySet()) {
                 RachioBridge bridge = be.getValue();
                 logger.trace("RachioEvent: Check for externalId: '{}' / '{}'", event.externalId,
                         bridge.cloudHandler.getExternalId());
-                if (bridge.cloudHandler.getExternalId().equals(event.externalId)) {
-                    return bridge.cloudHandler.webHookEvent(event);
+                if (!event.externalId.isEmpty() && bridge.cloudHandler.getExternalId().equals(event.externalId)) {
+                    // processed asynchronously by the bridge, see RachioEventQueue
+                    return bridge.cloudHandler.queueEvent(event);
                 }
             }
             logger.info("RachioEvent: Unauthorized webhook event (wrong externalId: '{}')", event.externalId);
+            RachioMetrics.recordEvent(event.type, RachioMetrics.EVENT_REJECTED);
             return false;
         } catch (Exception e) {
             logger.error("RachioEvent: Unable to process event: {}", e.getMessage());
@@ -171,6 +233,18 @@ public class RachioHandlerFactory extends BaseThingHandlerFactory {
         return ipList;
     } // getIpFilter()
 
+    /**
+     * @param ipFilter Current ipFilter list
+     * @return parsed ipFilter, only parsed again when the configuration changed
+     */
+    private synchronized List<SubnetInfo> getIpFilterSubnets(String ipFilter) {
+        if (!ipFilter.equals(parsedIpFilter)) {
+            ipFilterSubnets = rachioNetwork.parseSubnets(ipFilter);
+            parsedIpFilter = ipFilter;
+        }
+        return ipFilterSubnets;
+    }
+
     private RachioBridgeHandler createBridge(Bridge bridgeThing) {
         try {
             RachioBridge bridge = new RachioBridge();
@@ -196,6 +270,7 @@ public class RachioHandlerFactory extends BaseThingHandlerFactory {
         logger.debug("RachioHandlerFactory: Registering Rachio discovery service");
         RachioDiscoveryService discoveryService = new RachioDiscoveryService();
         discoveryService.setCloudHandler(cloudHandler);
+        cloudHandler.setDiscoveryService(discoveryService);
         discoveryServiceReg.put(cloudHandler.getThing().getUID(), bundleContext
                 .registerService(DiscoveryService.class.getName(), discoveryService, new Hashtable<String, Object>()));
     }
@@ -213,7 +288,17 @@ public class RachioHandlerFactory extends BaseThingHandlerFactory {
         }
 
         logger.debug("RachioHandlerFactory: Unregistering Rachio discovery service");
+        cloudHandler.setDiscoveryService(null);
         serviceReg.unregister();
         discoveryServiceReg.remove(thingUID);
     }
+
+    @Reference
+    public void setHttpClientFactory(HttpClientFactory httpClientFactory) {
+        this.httpClientFactory = httpClientFactory;
+    }
+
+    public void unsetHttpClientFactory(HttpClientFactory httpClientFactory) {
+        this.httpClientFactory = null;
+    }
 }
@@ -13,15 +13,17 @@ package org.openhab.binding.rachio.internal;
 import static org.openhab.binding.rachio.RachioBindingConstants.*;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 
 import org.apache.commons.net.util.SubnetUtils;
+import org.apache.commons.net.util.SubnetUtils.SubnetInfo;
 import org.openhab.binding.rachio.internal.api.RachioHttp;
+import org.openhab.binding.rachio.internal.api.RachioJsonCodec;
 //import com.offbynull.portmapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import com.google.gson.Gson;
-
 /**
  * RachioNetwork: Implement network related functions
  *
@@ -45,7 +47,7 @@ public class RachioNetwork {
     // private MappedPort mappedPort;
     private String mappedPort;
     private long lastRefresh = 0;
-    private ArrayList<AwsIpAddressRange> awsIpRanges = new ArrayList<>();
+    private volatile List<SubnetInfo> awsSubnets = Collections.emptyList(); // parsed once, checked per request
 
     public boolean initializeAwsList() {
         try {
@@ -56,19 +58,10 @@ public class RachioNetwork {
             // some kind
             RachioHttp http = new RachioHttp("");
             String jsonList = http.httpGet(AWS_IPADDR_DOWNLOAD_URL, "").resultString;
-            Gson gson = new Gson();
-            AwsIpList list = gson.fromJson(jsonList, AwsIpList.class);
-            for (int i = 0; i < list.prefixes.size(); i++) {
-                AwsIpAddressRange entry = list.prefixes.get(i);
-                if (entry.region.startsWith(AWS_IPADDR_REGION_FILTER)) {
-                    logger.trace("RachioNetwork: Adding range '{}' (region '{}' to AWS IP address list",
-                            entry.ip_prefix, entry.region);
-                    awsIpRanges.add(entry);
-                }
-            }
+            initializeAwsList(jsonList);
             logger.debug(
                     "RachioNetwork: AWS address list initialized, {} entries (will be used to verify inboud Rachio events)",
-                    awsIpRanges.size());
+                    awsSubnets.size());
             return true;
         } catch (Exception e) {
             logger.error("RachioNetwork: Unable to initialize: {}", e.getMessage());
@@ -77,46 +70,76 @@ public class RachioNetwork {
     }
 
     /**
-     * Checks if client ip equals or is in range of ip networks provided by
-     * semicolon separated list
+     * Take over the address ranges of the filtered region(s) from the AWS list
      *
-     * @param clientIp in numeric form like "192.168.0.10"
-     * @param ipList like "127.0.0.1;192.168.0.0/24;10.0.0.0/8"
-     * @return true if client ip from the list os ips and networks
+     * @param jsonList ip-ranges.json as downloaded from AWS
      */
-    public static boolean isIpInSubnet(String clientIp, String ipList) {
-        if ((ipList == null) || ipList.equals("")) {
-            // No ip address provided
-            return true;
+    void initializeAwsList(String jsonList) {
+        AwsIpList list = RachioJsonCodec.fromJson(jsonList, AwsIpList.class);
+        StringBuilder ipList = new StringBuilder();
+        for (int i = 0; i < list.prefixes.size(); i++) {
+            AwsIpAddressRange entry = list.prefixes.get(i);
+            if (entry.region.startsWith(AWS_IPADDR_REGION_FILTER)) {
+                logger.trace("RachioNetwork: Adding range '{}' (region '{}' to AWS IP address list", entry.ip_prefix,
+                        entry.region);
+                ipList.append(entry.ip_prefix).append(';');
+            }
         }
-        String[] subnetMasks = ipList.split(";");
-        for (String subnetMask : subnetMasks) {
+        awsSubnets = parseSubnets(ipList.toString());
+    }
+
+    /**
+     * Parse a semicolon separated list of ip addresses and networks
+     *
+     * @param ipList like "127.0.0.1;192.168.0.0/24;10.0.0.0/8"
+     * @return networks, a single address is a /32 network; invalid entries are skipped
+     */
+    public List<SubnetInfo> parseSubnets(String ipList) {
+        List<SubnetInfo> subnets = new ArrayList<>();
+        for (String subnetMask : ipList.split(";")) {
             subnetMask = subnetMask.trim();
-            if (clientIp.equals(subnetMask)) {
-                return true;
+            if (subnetMask.isEmpty()) {
+                continue;
             }
-            if (subnetMask.contains("/")) {
-                if (new SubnetUtils(subnetMask).getInfo().isInRange(clientIp)) {
-                    return true;
-                }
+            try {
+                boolean address = !subnetMask.contains("/");
+                SubnetUtils subnet = new SubnetUtils(address ? subnetMask + "/32" : subnetMask);
+                subnet.setInclusiveHostCount(address);
+                subnets.add(subnet.getInfo());
+            } catch (IllegalArgumentException e) {
+                logger.warn("RachioNetwork: Invalid ip address or network '{}' ignored", subnetMask);
             }
         }
-        return false;
-    } // evaluateIp
+        return subnets;
+    }
 
-    public boolean isIpInAwsList(String clientIp) {
-        if (awsIpRanges.size() == 0) {
-            // filtering not enabled
-            return true;
+    /**
+     * Checks if client ip equals or is in range of one of the networks
+     *
+     * @param clientIp in numeric form like "192.168.0.10"
+     * @param subnets Networks created by parseSubnets()
+     * @return true if client ip is in one of the networks
+     */
+    public static boolean isIpInSubnet(String clientIp, List<SubnetInfo> subnets) {
+        if (subnets.isEmpty()) {
+            return false;
         }
-
-        for (int i = 0; i < awsIpRanges.size(); i++) {
-            AwsIpAddressRange e = awsIpRanges.get(i);
-            if (isIpInSubnet(clientIp, e.ip_prefix)) {
+        int address = subnets.get(0).asInteger(clientIp); // parse the client address only once
+        for (SubnetInfo subnet : subnets) {
+            if (subnet.isInRange(address)) {
                 return true;
             }
         }
         return false;
+    } // isIpInSubnet
+
+    public boolean isIpInAwsList(String clientIp) {
+        List<SubnetInfo> subnets = awsSubnets;
+        if (subnets.isEmpty()) {
+            // filtering not enabled
+            return true;
+        }
+        return isIpInSubnet(clientIp, subnets);
     }
 
     public boolean initializePortMapping(int externalPort, int internalPort, int timeoutSec) {
@@ -12,21 +12,27 @@ package org.openhab.binding.rachio.internal.api;
 
 import static org.openhab.binding.rachio.RachioBindingConstants.*;
 
-import java.lang.reflect.Field;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
 import java.security.MessageDigest;
 import java.text.MessageFormat;
 import java.util.ArrayList;
-import java.util.Date;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import org.eclipse.smarthome.core.thing.Thing;
 import org.eclipse.smarthome.core.thing.ThingUID;
 import org.openhab.binding.rachio.RachioBindingConstants;
+import org.openhab.binding.rachio.internal.api.RachioRequestGovernor.Priority;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import com.google.gson.Gson;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
 
 /**
  * The {@link RachioApi} implements the interface to the Rachio cloud service (using http).
@@ -38,6 +44,7 @@ public class RachioApi {
     private static final Logger logger = LoggerFactory.getLogger(RachioApi.class);
     private static final String MD5_HASH_ALGORITHM = "MD5";
     private static final String UTF8_CHAR_SET = "UTF-8";
+    private static final String PERSON_STATUS_KEY = "person-status"; // single-flight key of readPersonStatus()
 
     public static class RachioApiResult {
         private final Logger logger = LoggerFactory.getLogger(RachioApiResult.class);
@@ -47,6 +54,7 @@ public class RachioApi {
         public String apikey = "";
         public Integer responseCode = 0;
         public String resultString = "";
+        public boolean fromCache = false; // served from the response cache, no rate limit information
 
         public Integer apiCalls = 0;
         public Integer rateLimit = 0;
@@ -111,10 +119,12 @@ public class RachioApi {
     protected String email = "";
 
     protected RachioApiResult lastApiResult = new RachioApiResult();
-    protected static final Integer externalIdSalt = (int) (Math.random() * 50 + 1);
 
-    private HashMap<String, RachioDevice> deviceList = new HashMap<String, RachioDevice>();
-    private RachioHttp httpApi = null;
+    private volatile HashMap<String, RachioDevice> deviceList = new HashMap<String, RachioDevice>();
+    private volatile List<RachioCloudDevice> cloudDevices = new ArrayList<>(); // last data received, see saveSnapshot()
+    private volatile RachioHttp httpApi = null;
+    private String apiUrl = APIURL_BASE;
+    private Priority requestPriority = Priority.POLL;
 
     class RachioCloudPersonId {
         String id = ""; // "id":"xxxxxxx-xxxx-xxxx-xxxx-xxxxxxxx"
@@ -128,9 +138,10 @@ public class RachioApi {
         String email = ""; // "email":"markus.michels@me.com",
         public ArrayList<RachioCloudDevice> devices = new ArrayList<>(); // "devices":[]
         boolean deleted = false; // "deleted":false
+        RachioApiResult apiResult; // result of the request (not part of the JSON)
     } // class RachioCloudStatus
 
-    public class RachioApiWebHookEntry {
+    public static class RachioApiWebHookEntry {
         public long createDate = -1;
         public long lastUpdateDate = -1;
         public String id = "";
@@ -138,11 +149,6 @@ public class RachioApi {
         public String externalId = "";
     }
 
-    public class RachioApiWebHookList {
-        public ArrayList<RachioApiWebHookEntry> webhooks = new ArrayList<>();
-
-    }
-
     public class RachioCloudDelta {
         // V3: ZONE_DELTA / SCHEDULE_DELTA
         String routingId = ""; // "routingId" : "d3beb3ab-b85a-49fe-a45d-37c4d95ea9a8",
@@ -162,27 +168,64 @@ public class RachioApi {
         this.personId = personId;
     }
 
+    /**
+     * Set the priority for read requests of this instance (commands always use Priority.COMMAND)
+     *
+     * @param priority Priority used with the request governor
+     */
+    public void setRequestPriority(Priority priority) {
+        requestPriority = priority;
+    }
+
+    /**
+     * Set the base url of the Rachio cloud api (e.g. a local simulator), must be called before initialize()
+     *
+     * @param url Base url, null or empty: use the Rachio cloud
+     */
+    public void setApiUrl(String url) {
+        if ((url == null) || url.isEmpty()) {
+            apiUrl = APIURL_BASE;
+        } else {
+            apiUrl = url.endsWith("/") ? url : url + "/";
+        }
+    }
+
     public RachioApiResult getLastApiResult() {
         return lastApiResult;
     }
 
+    /**
+     * Keep the result of the last request, results served from the response cache are skipped, because they don't
+     * carry the current rate limit information
+     *
+     * @param result Result of the last request
+     */
     protected void setApiResult(RachioApiResult result) {
-        lastApiResult = result;
+        if (!result.fromCache) {
+            lastApiResult = result;
+        }
     }
 
     public String getPersonId() {
         return personId;
     }
 
-    public String getExternalId() {
-        // return a salted ash of the apikey
-        String hash = "OH_" + getMD5Hash(apikey) + "_" + externalIdSalt.toString();
+    /**
+     * Get the external id for the webhooks of a bridge. It's a hash of the apikey and the bridge, so it doesn't change
+     * with a restart and the webhooks registered before stay valid.
+     *
+     * @param bridgeUID UID of the bridge thing
+     * @return external id
+     */
+    public String getExternalId(ThingUID bridgeUID) {
+        String hash = "OH_" + getMD5Hash(apikey) + "_" + bridgeUID.getAsString();
         return getMD5Hash(hash);
     }
 
     public boolean initialize(String apikey, ThingUID bridgeUID) throws RachioApiException {
         this.apikey = apikey;
         httpApi = new RachioHttp(this.apikey);
+        httpApi.setPriority(requestPriority);
         if (initializePersonId() && initializeDevices(bridgeUID) && initializeZones()) {
             logger.trace("Rachio API initialized");
             return true;
@@ -193,10 +236,62 @@ public class RachioApi {
         return false;
     } // initialize()
 
+    /**
+     * Initialize from the snapshot saved by a previous run instead of calling the cloud. The caller should refresh the
+     * devices in the background to revalidate the data.
+     *
+     * @param apikey Rachio apikey
+     * @return true: devices restored, false: no usable snapshot, call initialize()
+     * @throws RachioApiException
+     */
+    public boolean initializeFromSnapshot(String apikey) throws RachioApiException {
+        RachioSnapshot snapshot = RachioSnapshot.load(apikey);
+        if (snapshot == null) {
+            return false;
+        }
+
+        this.apikey = apikey;
+        httpApi = new RachioHttp(this.apikey);
+        httpApi.setPriority(requestPriority);
+        personId = snapshot.personId;
+        userName = snapshot.username;
+        cloudDevices = snapshot.devices;
+        RachioWebHookReconciler.getInstance(apikey).restoreRegistrations(snapshot.webhooks);
+        HashMap<String, RachioDevice> devices = createDevices(snapshot.devices);
+        deviceList = devices; // publish the complete list
+        logger.debug("RachioApi: {} devices restored from snapshot ({}s old)", devices.size(),
+                (System.currentTimeMillis() - snapshot.savedAt) / 1000);
+        return true;
+    }
+
+    /**
+     * Save the data last received from the cloud, so the next start could use initializeFromSnapshot()
+     */
+    public void saveSnapshot() {
+        if (apikey.isEmpty() || personId.isEmpty()) {
+            return;
+        }
+        RachioSnapshot snapshot = new RachioSnapshot();
+        snapshot.personId = personId;
+        snapshot.username = userName;
+        snapshot.devices = cloudDevices;
+        snapshot.webhooks = RachioWebHookReconciler.getInstance(apikey).getRegistrations();
+        RachioSnapshot.save(apikey, snapshot);
+    }
+
     public HashMap<String, RachioDevice> getDevices() {
         return deviceList;
     }
 
+    /**
+     * Replace the device list, e.g. when refreshDevices() returned added or renamed devices/zones
+     *
+     * @param devices Complete list as returned by refreshDevices()
+     */
+    public void publishDevices(HashMap<String, RachioDevice> devices) {
+        deviceList = devices;
+    }
+
     public RachioDevice getDevByUID(ThingUID bridgeUID, ThingUID thingUID) {
         for (HashMap.Entry<String, RachioDevice> entry : deviceList.entrySet()) {
             RachioDevice dev = entry.getValue();
@@ -237,9 +332,9 @@ public class RachioApi {
             return true;
         }
 
-        lastApiResult = httpApi.httpGet(APIURL_BASE + APIURL_GET_PERSON, null);
-        Gson gson = new Gson();
-        RachioCloudPersonId pid = gson.fromJson(lastApiResult.resultString, RachioCloudPersonId.class);
+        RachioApiResult result = httpApi.httpGet(apiUrl + APIURL_GET_PERSON, null);
+        setApiResult(result);
+        RachioCloudPersonId pid = RachioJsonCodec.fromJson(result.resultString, RachioCloudPersonId.class);
         personId = pid.id;
         logger.debug("Using personId '{}'", personId);
         if (lastApiResult.isRateLimitCritical()) {
@@ -259,124 +354,192 @@ public class RachioApi {
         return info;
     }
 
-    public void stopWatering(String deviceId) throws RachioApiException {
+    public RachioApiResult stopWatering(String deviceId) throws RachioApiException {
         logger.debug("RachioApi. Stop watering for device '{}'", deviceId);
-        httpApi.httpPut(APIURL_BASE + APIURL_DEV_PUT_STOP, "{ \"id\" : \"" + deviceId + "\" }");
+        return httpApi.httpPut(apiUrl + APIURL_DEV_PUT_STOP, "{ \"id\" : \"" + deviceId + "\" }");
     } // stopWatering()
 
-    public void enableDevice(String deviceId) throws RachioApiException {
+    public RachioApiResult enableDevice(String deviceId) throws RachioApiException {
         logger.debug("RachioApi: Enable device '{}'.", deviceId);
-        httpApi.httpPut(APIURL_BASE + APIURL_DEV_PUT_ON, "{ \"id\" : \"" + deviceId + "\" }");
+        return httpApi.httpPut(apiUrl + APIURL_DEV_PUT_ON, "{ \"id\" : \"" + deviceId + "\" }");
     } // enableDevice
 
-    public void disableDevice(String deviceId) throws RachioApiException {
+    public RachioApiResult disableDevice(String deviceId) throws RachioApiException {
         logger.debug("RachioApi: Disable device '{}'.", deviceId);
-        httpApi.httpPut(APIURL_BASE + APIURL_DEV_PUT_OFF, "{ \"id\" : \"" + deviceId + "\" }");
+        return httpApi.httpPut(apiUrl + APIURL_DEV_PUT_OFF, "{ \"id\" : \"" + deviceId + "\" }");
     } // disableDevice
 
-    public void rainDelay(String deviceId, Integer delay) throws RachioApiException {
+    public RachioApiResult rainDelay(String deviceId, Integer delay) throws RachioApiException {
         logger.debug("RachioApi: Start dain relay for device '{}'.", deviceId);
-        httpApi.httpPut(APIURL_BASE + APIURL_DEV_PUT_RAIN_DELAY,
+        return httpApi.httpPut(apiUrl + APIURL_DEV_PUT_RAIN_DELAY,
                 "{ \"id\" : \"" + deviceId + "\", \"durartion\" : " + delay + " }");
     } // rainDelay
 
-    public void runMultilpeZones(String zoneListJson) throws RachioApiException {
+    public RachioApiResult runMultilpeZones(String zoneListJson) throws RachioApiException {
         logger.debug("RachioApi: Start multiple zones '{}'.", zoneListJson);
-        httpApi.httpPut(APIURL_BASE + APIURL_ZONE_PUT_MULTIPLE_START, zoneListJson);
+        return httpApi.httpPut(apiUrl + APIURL_ZONE_PUT_MULTIPLE_START, zoneListJson);
     } // startZone()
 
-    public void runZone(String zoneId, int duration) throws RachioApiException {
+    public RachioApiResult runZone(String zoneId, int duration) throws RachioApiException {
         logger.debug("RachioApi: Start zone '{}' for {} sec.", zoneId, duration);
-        httpApi.httpPut(APIURL_BASE + APIURL_ZONE_PUT_START,
+        return httpApi.httpPut(apiUrl + APIURL_ZONE_PUT_START,
                 "{ \"id\" : \"" + zoneId + "\", \"duration\" : " + duration + " }");
     } // startZone()
 
-    public void getDeviceInfo(String deviceId) throws RachioApiException {
-        httpApi.httpGet(APIURL_BASE + APIURL_GET_DEVICE + "/" + deviceId, null);
+    public RachioApiResult getDeviceInfo(String deviceId) throws RachioApiException {
+        return httpApi.httpGet(apiUrl + APIURL_GET_DEVICE + "/" + deviceId, null);
     } // getDeviceInfo
 
-    public void registerWebHook(String deviceId, String callbackUrl, String externalId, Boolean clearAllCallbacks)
-            throws RachioApiException {
-        // first check/delete existing webhooks
-        logger.debug("RachioApi: Register webhook, url={}, externalId={}, clearAllCallbacks={}", callbackUrl,
+    /**
+     * Make sure each device has exactly one webhook for our callback url (see {@link RachioWebHookReconciler}).
+     * The snapshot gets saved when the registrations have changed.
+     *
+     * @param deviceIds Devices of the bridge
+     * @param callbackUrl Our callback url
+     * @param externalId External id of the bridge
+     * @param clearAllCallbacks true: delete all other webhooks of the devices
+     * @throws RachioApiException
+     */
+    public void reconcileWebHooks(Collection<String> deviceIds, String callbackUrl, String externalId,
+            Boolean clearAllCallbacks) throws RachioApiException {
+        logger.debug("RachioApi: Reconcile webhooks, url={}, externalId={}, clearAllCallbacks={}", callbackUrl,
                 externalId, clearAllCallbacks.toString());
-
-        String json = "";
-        try {
-            json = httpApi.httpGet(APIURL_BASE + APIURL_DEV_QUERY_WEBHOOK + "/" + deviceId + "/webhook",
-                    null).resultString; // throws
-            logger.debug("RachioApi: Registered webhooks for device '{}': {}", deviceId, json);
-            logger.trace("RachioWebHook: Registered WebHooks - JSON='{}'", json);
-            json = "{\"webhooks\":" + json + "}";
-            Gson gson = new Gson();
-            RachioApiWebHookList list = gson.fromJson(json, RachioApiWebHookList.class);
-            for (int i = 0; i < list.webhooks.size(); i++) {
-                RachioApiWebHookEntry whe = list.webhooks.get(i);
-                logger.debug("RachioApi: WebHook #{}: id='{}', url='{}', externalId='{}'", i, whe.id, whe.url,
-                        whe.externalId);
-                if (clearAllCallbacks || whe.url.equals(callbackUrl)) {
-                    logger.debug("RachioApi: The callback url '{}' is already registered -> delete", callbackUrl);
-                    httpApi.httpDelete(APIURL_BASE + APIURL_DEV_DELETE_WEBHOOK + "/" + whe.id, null);
-                }
-            }
-        } catch (Exception e) {
-            logger.debug("RachioApi: Deleting WebHook(s); failed: {}, JSON='{}'", e.getMessage(), json);
+        if (httpApi == null) {
+            throw new RachioApiException("RachioApi: Cloud access not initialized");
+        }
+        if (RachioWebHookReconciler.getInstance(apikey).reconcile(httpApi, apiUrl, deviceIds, callbackUrl, externalId,
+                clearAllCallbacks)) {
+            saveSnapshot();
         }
-
-        // {
-        // "device":{"id":"2a5e7d3c-c140-4e2e-91a1-a212a518adc5"},
-        // "externalId" : "external company ID",
-        // "url":"https://www.mydomain.com/another_webhook",
-        // "eventTypes":[{"id":"1"},{"id":"2"}]
-        // }
-        //
-        logger.debug("RachioApi: Register WebHook, callback url = '{}'", callbackUrl);
-        String jsonData = "{ " +
-                "\"device\":{\"id\":\"" + deviceId + "\"}, " +
-                "\"externalId\" : \"" + externalId + "\", " +
-                "\"url\" : \"" + callbackUrl + "\", " +
-                "\"eventTypes\" : [" +
-                "{\"id\" : \"" + WHE_DEVICE_STATUS + "\"}, " +
-                "{\"id\" : \"" + WHE_RAIN_DELAY + "\"}, " +
-                "{\"id\" : \"" + WEATHER_INTELLIGENCE + "\"}, " +
-                "{\"id\" : \"" + WHE_WATER_BUDGET + "\"}, " +
-                "{\"id\" : \"" + WHE_ZONE_DELTA + "\"}, " +
-                "{\"id\" : \"" + WHE_SCHEDULE_STATUS + "\"}, " +
-                "{\"id\" : \"" + WHE_ZONE_STATUS + "\"}, " +
-                "{\"id\" : \"" + WHE_RAIN_SENSOR_DETECTION + "\"}, " +
-                "{\"id\" : \"" + WHE_DELTA + "\"} " +
-                "]" +
-                "}";
-        httpApi.httpPost(APIURL_BASE + APIURL_DEV_POST_WEBHOOK, jsonData);
     }
 
     // ------------ internal stuff
 
     private Boolean initializeDevices(ThingUID BridgeUID) throws RachioApiException {
-        String json = "";
         if (httpApi == null) {
             logger.debug("RachioApi.initializeDevices: httpAPI not initialized");
             return false;
         }
-        json = httpApi.httpGet(APIURL_BASE + APIURL_GET_PERSONID + "/" + personId, null).resultString;
-        logger.trace("RachioApi: Initialize from JSON='{}'", json);
 
-        Gson gson = new Gson();
-        RachioCloudStatus cloudStatus = gson.fromJson(json, RachioCloudStatus.class);
+        applyCloudStatus(readPersonStatus());
+        return true;
+    } // initializeDevices()
+
+    /**
+     * Take over person attributes and devices from the person/{id} result
+     *
+     * @param cloudStatus Result of readCloudStatus()
+     */
+    void applyCloudStatus(RachioCloudStatus cloudStatus) {
         userName = cloudStatus.username;
         fullName = cloudStatus.fullName;
         email = cloudStatus.email;
 
-        deviceList = new HashMap<String, RachioDevice>(); // discard current list
-        for (int i = 0; i < cloudStatus.devices.size(); i++) {
-            RachioCloudDevice device = cloudStatus.devices.get(i);
-            if (!device.deleted) {
-                deviceList.put(device.id, new RachioDevice(device));
-                logger.trace("RachioApi: Device '{}' initialized, {} zones.", device.name, device.zones.size());
+        cloudDevices = cloudStatus.devices;
+        deviceList = createDevices(cloudStatus.devices); // discard current list, publish the complete new one
+    }
+
+    /**
+     * Create the device objects (incl. zones) from the cloud data
+     *
+     * @param cloudDevices Devices as received from the cloud
+     * @return Devices by device id
+     */
+    HashMap<String, RachioDevice> createDevices(List<RachioCloudDevice> cloudDevices) {
+        HashMap<String, RachioDevice> devices = new HashMap<String, RachioDevice>();
+        for (RachioCloudDevice device : cloudDevices) {
+            devices.put(device.id, new RachioDevice(device));
+            logger.trace("RachioApi: Device '{}' initialized, {} zones.", device.name, device.zones.size());
+        }
+        return devices;
+    }
+
+    /**
+     * Read the current device and zone data from the cloud. This doesn't change the device list, the caller compares
+     * the result with the existing objects and applies the changes.
+     *
+     * @return Device snapshots (incl. zones) by device id
+     * @throws RachioApiException
+     */
+    public HashMap<String, RachioDevice> refreshDevices() throws RachioApiException {
+        if (httpApi == null) {
+            throw new RachioApiException("RachioApi: Unable to refresh, API not initialized");
+        }
+
+        RachioCloudStatus cloudStatus = readPersonStatus();
+        userName = cloudStatus.username;
+        fullName = cloudStatus.fullName; // not in the snapshot, filled in by the first refresh
+        email = cloudStatus.email;
+        cloudDevices = cloudStatus.devices;
+        return createDevices(cloudStatus.devices);
+    } // refreshDevices()
+
+    /**
+     * One person/{id} call returns all devices of the account. The data is parsed while it's received, no need to
+     * buffer the complete JSON. Bridge initialization, polling and discovery may request it at the same time, calls
+     * with the same priority share a single request.
+     */
+    private RachioCloudStatus readPersonStatus() throws RachioApiException {
+        String url = apiUrl + APIURL_GET_PERSONID + "/" + personId;
+        String key = PERSON_STATUS_KEY + " " + httpApi.getPriority() + " " + apikey + " " + url;
+        RachioCloudStatus cloudStatus = RachioSingleFlight.execute(key, () -> {
+            RachioCloudStatus status = new RachioCloudStatus();
+            status.apiResult = httpApi.httpGet(url, null, content -> readCloudStatus(content, status));
+            return status;
+        });
+        setApiResult(cloudStatus.apiResult);
+        return cloudStatus;
+    }
+
+    /**
+     * Stream parser for the person/{id} result. Deleted devices are dropped and the schedule rules are skipped at
+     * token level.
+     *
+     * @param content Response body
+     * @param cloudStatus Receives the person attributes and active devices
+     * @throws IOException
+     */
+    void readCloudStatus(InputStream content, RachioCloudStatus cloudStatus) throws IOException {
+        JsonReader reader = new JsonReader(new InputStreamReader(content, StandardCharsets.UTF_8));
+        cloudStatus.devices.clear(); // request might be retried
+        reader.beginObject();
+        while (reader.hasNext()) {
+            String name = reader.nextName();
+            if (reader.peek() == JsonToken.NULL) {
+                reader.skipValue();
+                continue;
+            }
+            switch (name) {
+                case "id":
+                    cloudStatus.id = reader.nextString();
+                    break;
+                case "username":
+                    cloudStatus.username = reader.nextString();
+                    break;
+                case "fullName":
+                    cloudStatus.fullName = reader.nextString();
+                    break;
+                case "email":
+                    cloudStatus.email = reader.nextString();
+                    break;
+                case "devices":
+                    reader.beginArray();
+                    while (reader.hasNext()) {
+                        RachioCloudDevice device = RachioJsonCodec.fromJson(reader, RachioCloudDevice.class);
+                        if ((device != null) && !device.deleted) {
+                            cloudStatus.devices.add(device);
+                        } else if (device != null) {
+                            logger.trace("RachioApi: Device '{}' is deleted, skip.", device.id);
+                        }
+                    }
+                    reader.endArray();
+                    break;
+                default:
+                    reader.skipValue();
             }
         }
-        return true;
-    } // initializeDevices()
+        reader.endObject();
+    } // readCloudStatus()
 
     public Boolean initializeZones() {
         return true;
@@ -421,67 +584,4 @@ public class RachioApi {
         }
     }
 
-    public static void copyMatchingFields(Object fromObj, Object toObj) {
-        if (fromObj == null || toObj == null) {
-            throw new NullPointerException("Source and destination objects must be non-null");
-        }
-
-        Class fromClass = fromObj.getClass();
-        Class toClass = toObj.getClass();
-
-        Field[] fields = fromClass.getFields(); // .getDeclaredFields();
-        for (Field f : fields) {
-            try {
-                String fname = f.getName();
-                Field t = toClass.getSuperclass().getDeclaredField(fname);
-
-                if (t.getType() == f.getType()) {
-                    // extend this if to copy more immutable types if interested
-                    if (t.getType() == String.class || t.getType() == int.class || t.getType() == long.class
-                            || t.getType() == double.class || t.getType() == char.class || t.getType() == boolean.class
-                            || t.getType() == Double.class || t.getType() == Integer.class || t.getType() == Long.class
-                            || t.getType() == Character.class || t.getType() == Boolean.class) {
-                        f.setAccessible(true);
-                        t.setAccessible(true);
-                        t.set(toObj, f.get(fromObj));
-                    } else if (t.getType() == Date.class) {
-                        // dates are not immutable, so clone non-null dates into the destination object
-                        Date d = (Date) f.get(fromObj);
-                        f.setAccessible(true);
-                        t.setAccessible(true);
-                        t.set(toObj, d != null ? d.clone() : null);
-                    } else if (t.getType() == java.util.ArrayList.class) {
-                        // dates are not immutable, so clone non-null dates into the destination object
-                        ArrayList a = (ArrayList) f.get(fromObj);
-                        f.setAccessible(true);
-                        t.setAccessible(true);
-                        t.set(toObj, a != null ? a.clone() : null);
-                    } /*
-                       * else if ((t
-                       * .getType() ==
-                       * org.openhab.binding.rachio.internal.api.RachioCloudZone.RachioCustomeNozzle.class)
-                       * || (t.getType() ==
-                       * org.openhab.binding.rachio.internal.api.RachioCloudZone.RachioCustomSoil.class)
-                       * || (t.getType() ==
-                       * org.openhab.binding.rachio.internal.api.RachioCloudZone.RachioCustomSlope.class)
-                       * || (t.getType() ==
-                       * org.openhab.binding.rachio.internal.api.RachioCloudZone.RachioCustomCrop.class)
-                       * || (t.getType() ==
-                       * org.openhab.binding.rachio.internal.api.RachioCloudZone.RachioCustomCrop.class)) {
-                       * f.setAccessible(true);
-                       * t.setAccessible(true);
-                       * t.set(toObj, f.get(fromObj));
-                       * }
-                       */ else {
-                        logger.debug("RachioApiInternal: Unable to update field '{}', '{}'", t.getName(), t.getType());
-                    }
-                }
-            } catch (NoSuchFieldException ex) {
-                // skip it
-            } catch (IllegalAccessException ex) {
-                logger.error("Unable to copy field: {}", f.getName());
-            }
-        } // or (Field f : fields)
-    } // copyMatchingFields
-
 } // class
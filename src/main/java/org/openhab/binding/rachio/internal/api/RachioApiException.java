@@ -3,6 +3,8 @@ package org.openhab.binding.rachio.internal.api;
 import java.net.MalformedURLException;
 import java.net.UnknownHostException;
 import java.text.MessageFormat;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletionException;
 
 import org.openhab.binding.rachio.internal.api.RachioApi.RachioApiResult;
 
@@ -40,6 +42,31 @@ public class RachioApiException extends Exception {
         return apiResult;
     }
 
+    /**
+     * Check if a command future completed, because the command was dropped (e.g. a zone start superseded by a stop)
+     *
+     * @param e Exception passed to whenComplete()/exceptionally()
+     * @return true: the command was not sent, but this is no error
+     */
+    public static boolean isSuperseded(Throwable e) {
+        Throwable cause = (e instanceof CompletionException) && (e.getCause() != null) ? e.getCause() : e;
+        return cause instanceof CancellationException;
+    }
+
+    /**
+     * Build a readable error message from the exception a future completed with.
+     *
+     * @param e Exception passed to whenComplete()/exceptionally()
+     * @return error message
+     */
+    public static String getErrorMessage(Throwable e) {
+        Throwable cause = (e instanceof CompletionException) && (e.getCause() != null) ? e.getCause() : e;
+        if (cause instanceof RachioApiException) {
+            return cause.toString();
+        }
+        return cause.getMessage() != null ? cause.getMessage() : cause.toString();
+    }
+
     @Override
     public String getMessage() {
         return super.getMessage();
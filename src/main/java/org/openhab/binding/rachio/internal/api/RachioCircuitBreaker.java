@@ -0,0 +1,84 @@
+/**
+ * Copyright (c) 2010-2018 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.rachio.internal.api;
+
+import static org.openhab.binding.rachio.RachioBindingConstants.*;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The {@link RachioCircuitBreaker} tracks failures of one cloud endpoint for one apikey. After
+ * RACHIO_CB_FAILURE_THRESHOLD consecutive failures (connection errors, 5xx) the circuit opens and requests fail fast
+ * for RACHIO_CB_OPEN_TIME seconds. Then a single trial request is let through: success closes the circuit, a failure
+ * opens it again. A request allowed by allowRequest() has to report its outcome with success() or failure(), or call
+ * release() if it was not sent or has no outcome, so the trial is given to the next request.
+ *
+ * @author Markus Michels (markus7017) - Initial contribution
+ */
+public class RachioCircuitBreaker {
+    private final Logger logger = LoggerFactory.getLogger(RachioCircuitBreaker.class);
+
+    private final String endpoint;
+    private int failures = 0;
+    private long openUntil = 0;
+    private Thread trial = null; // thread sending the trial request (half open)
+
+    public RachioCircuitBreaker(String endpoint) {
+        this.endpoint = endpoint;
+    }
+
+    /**
+     * Check if a request can be sent
+     *
+     * @return true: send request, false: circuit is open, fail fast
+     */
+    public synchronized boolean allowRequest() {
+        if (failures < RACHIO_CB_FAILURE_THRESHOLD) {
+            return true;
+        }
+        if ((System.currentTimeMillis() < openUntil) || (trial != null)) {
+            return false;
+        }
+        trial = Thread.currentThread(); // half open: let one request through
+        return true;
+    }
+
+    /**
+     * The allowed request was not sent or has no outcome (e.g. the response could not be processed), give the trial
+     * to the next request
+     */
+    public synchronized void release() {
+        if (trial == Thread.currentThread()) {
+            trial = null;
+        }
+    }
+
+    public synchronized void success() {
+        if (failures >= RACHIO_CB_FAILURE_THRESHOLD) {
+            logger.info("RachioHttp: Rachio cloud is reachable again, circuit for '{}' closed", endpoint);
+        }
+        failures = 0;
+        trial = null;
+    }
+
+    public synchronized void failure() {
+        failures++;
+        trial = null;
+        if (failures >= RACHIO_CB_FAILURE_THRESHOLD) {
+            openUntil = System.currentTimeMillis() + RACHIO_CB_OPEN_TIME * 1000L;
+            if (failures == RACHIO_CB_FAILURE_THRESHOLD) {
+                logger.warn("RachioHttp: {} consecutive failures, circuit for '{}' opened for {}s", failures, endpoint,
+                        RACHIO_CB_OPEN_TIME);
+            }
+        }
+    }
+}
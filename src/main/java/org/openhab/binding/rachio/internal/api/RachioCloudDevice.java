@@ -20,7 +20,7 @@ import java.util.ArrayList;
 class RachioCloudDevice {
     public long createDate = -1; // "createDate":1494626927000,
     public String id = ""; // "id":"xxxxxxxx-xxxx-xxxx-xxxx-xxxxxxxx",
-    public String status = ""; // "status":"ONLINE",
+    public volatile String status = ""; // "status":"ONLINE",
     public ArrayList<RachioCloudZone> zones = new ArrayList<>();
     public double latitude = 0.0; // "latitude":26.928539276123,
     public double longitude = 0.0; // "longitude":-82.3335037231445,
@@ -30,13 +30,42 @@ class RachioCloudDevice {
     public String serialNumber = ""; // "serialNumber":"VR0547710",
     public long rainDelayExpirationDate = 0; // "rainDelayExpirationDate":0,
     public String macAddress = ""; // "macAddress":"XXXXXXXXXXXX",
-    public boolean on = true; // "on":true,
+    public volatile boolean on = true; // "on":true,
     public ArrayList<RachioCloudScheduleRule> flexScheduleRules = new ArrayList<>(); // "flexScheduleRules":[],
     public String model = ""; // "model":"GENERATION2_8ZONE",
     public String scheduleModeType = ""; // "scheduleModeType":"MANUAL",
     public boolean deleted = false; // "deleted":false,
     public boolean homeKitCompatible = false; // "homeKitCompatible":false
 
+    public RachioCloudDevice() {
+    }
+
+    /**
+     * Copy constructor, lists are copied shallow (same as the cloud data they were parsed from)
+     *
+     * @param device Device to copy from
+     */
+    public RachioCloudDevice(RachioCloudDevice device) {
+        createDate = device.createDate;
+        id = device.id;
+        status = device.status;
+        zones = new ArrayList<>(device.zones);
+        latitude = device.latitude;
+        longitude = device.longitude;
+        name = device.name;
+        scheduleRules = new ArrayList<>(device.scheduleRules);
+        cycleSoak = device.cycleSoak;
+        serialNumber = device.serialNumber;
+        rainDelayExpirationDate = device.rainDelayExpirationDate;
+        macAddress = device.macAddress;
+        on = device.on;
+        flexScheduleRules = new ArrayList<>(device.flexScheduleRules);
+        model = device.model;
+        scheduleModeType = device.scheduleModeType;
+        deleted = device.deleted;
+        homeKitCompatible = device.homeKitCompatible;
+    }
+
     public class RachioCloudScheduleRule {
         public String id = ""; // "id":"xxxxxxxx-xxxx-xxxx-xxxx-xxxxxxxx",
         public ArrayList<RachioCloudScheduleRuleZone> zones = new ArrayList<>(); // "zones":[]
@@ -114,7 +143,7 @@ class RachioCloudDevice {
         public String category = ""; // "category" : "DEVICE",
     }
 
-    public class RachioCloudNetworkSettings {
+    public static class RachioCloudNetworkSettings {
         // "network" : {
         public String gw = ""; // "gw" : "192.168.1.1",
         public String rssi = ""; // "rssi" : -61,
@@ -43,6 +43,35 @@ class RachioCloudZone {
     public int runtimeNoMultiplier = 0; // "runtimeNoMultiplier":627,
     public int runtime = 0; // "runtime":627
 
+    public RachioCloudZone() {
+    }
+
+    /**
+     * Copy constructor
+     *
+     * @param zone Zone to copy from
+     */
+    public RachioCloudZone(RachioCloudZone zone) {
+        id = zone.id;
+        zoneNumber = zone.zoneNumber;
+        name = zone.name;
+        enabled = zone.enabled;
+        availableWater = zone.availableWater;
+        rootZoneDepth = zone.rootZoneDepth;
+        managementAllowedDepletion = zone.managementAllowedDepletion;
+        efficiency = zone.efficiency;
+        yardAreaSquareFeet = zone.yardAreaSquareFeet;
+        imageUrl = zone.imageUrl;
+        lastWateredDate = zone.lastWateredDate;
+        scheduleDataModified = zone.scheduleDataModified;
+        fixedRuntime = zone.fixedRuntime;
+        saturatedDepthOfWater = zone.saturatedDepthOfWater;
+        depthOfWater = zone.depthOfWater;
+        maxRuntime = zone.maxRuntime;
+        runtimeNoMultiplier = zone.runtimeNoMultiplier;
+        runtime = zone.runtime;
+    }
+
     public class RachioCustomeNozzle {
         public String name = ""; // "name":"FIXED_SPRAY_HEAD",
         public Double inchesPerHour = 0.0; // "inchesPerHour":1.5
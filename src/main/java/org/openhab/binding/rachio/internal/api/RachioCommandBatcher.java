@@ -0,0 +1,141 @@
+/**
+ * Copyright (c) 2010-2018 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.rachio.internal.api;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.openhab.binding.rachio.internal.api.RachioApi.RachioApiResult;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The {@link RachioCommandBatcher} collects zone starts for a short window before passing them to the command queue.
+ * Zone starts of the same device are merged into one zone/start_multiple request. A stop drops the zone starts
+ * collected before it, their futures complete with a CancellationException. All callers of a merged command get the
+ * same result.
+ *
+ * @author Markus Michels (markus7017) - Initial contribution
+ */
+public class RachioCommandBatcher {
+    private final Logger logger = LoggerFactory.getLogger(RachioCommandBatcher.class);
+
+    private static class RachioPendingZones {
+        private final LinkedHashMap<String, Integer> zones = new LinkedHashMap<>();
+        private final CompletableFuture<RachioApiResult> future = new CompletableFuture<>();
+        private ScheduledFuture<?> flushJob;
+    }
+
+    private final RachioApi api;
+    private final RachioCommandQueue queue;
+    private final ScheduledExecutorService scheduler;
+    private final Map<String, RachioPendingZones> pending = new HashMap<>();
+    private int window;
+
+    /**
+     * Constructor
+     *
+     * @param api Api used to send the commands
+     * @param queue Command queue of the bridge
+     * @param scheduler Scheduler for the window timer
+     * @param window Batching window in ms, 0=send commands immediately
+     */
+    public RachioCommandBatcher(RachioApi api, RachioCommandQueue queue, ScheduledExecutorService scheduler,
+            int window) {
+        this.api = api;
+        this.queue = queue;
+        this.scheduler = scheduler;
+        this.window = window;
+    }
+
+    public synchronized void setWindow(int window) {
+        this.window = window;
+    }
+
+    public synchronized CompletableFuture<RachioApiResult> startZone(String deviceId, String zoneId, int runTime) {
+        RachioPendingZones zones = pending.computeIfAbsent(deviceId, id -> new RachioPendingZones());
+        zones.zones.remove(zoneId); // keep the order of the last command
+        zones.zones.put(zoneId, runTime);
+        if (window <= 0) {
+            flush(deviceId);
+        } else if (zones.flushJob == null) {
+            zones.flushJob = scheduler.schedule(() -> flush(deviceId), window, TimeUnit.MILLISECONDS);
+        }
+        return zones.future;
+    }
+
+    /**
+     * Drop the zone starts collected for the device, they complete with a CancellationException (not sent)
+     *
+     * @param deviceId Device
+     */
+    public synchronized void stopWatering(String deviceId) {
+        RachioPendingZones zones = pending.remove(deviceId);
+        if (zones != null) {
+            logger.debug("RachioBatch: Stop received, drop pending start of {} zone(s)", zones.zones.size());
+            if (zones.flushJob != null) {
+                zones.flushJob.cancel(false);
+            }
+            zones.future.completeExceptionally(
+                    new CancellationException("RachioBatch: Zone start superseded by stop, command not sent"));
+        }
+    }
+
+    /**
+     * Cancel the window timers, pending commands complete exceptionally
+     */
+    public synchronized void dispose() {
+        RachioApiException e = new RachioApiException("RachioBatch: Bridge disposed, command not sent");
+        for (RachioPendingZones zones : pending.values()) {
+            if (zones.flushJob != null) {
+                zones.flushJob.cancel(false);
+            }
+            zones.future.completeExceptionally(e);
+        }
+        pending.clear();
+    }
+
+    private void flush(String deviceId) {
+        RachioPendingZones zones;
+        synchronized (this) {
+            zones = pending.remove(deviceId);
+        }
+        if (zones == null) {
+            return;
+        }
+
+        CompletableFuture<RachioApiResult> result;
+        if (zones.zones.size() == 1) {
+            Map.Entry<String, Integer> zone = zones.zones.entrySet().iterator().next();
+            result = queue.submit(deviceId, RachioCommandQueue.CMD_RUN,
+                    () -> api.runZone(zone.getKey(), zone.getValue()));
+        } else {
+            String json = RachioDevice.getRunZonesJson(zones.zones);
+            logger.debug("RachioBatch: Merged {} zone starts for device '{}'", zones.zones.size(), deviceId);
+            result = queue.submit(deviceId, RachioCommandQueue.CMD_RUN, () -> api.runMultilpeZones(json));
+        }
+        result.whenComplete((r, e) -> complete(zones.future, r, e));
+    }
+
+    private static void complete(CompletableFuture<RachioApiResult> future, RachioApiResult result, Throwable e) {
+        if (e != null) {
+            future.completeExceptionally(e);
+        } else {
+            future.complete(result);
+        }
+    }
+}
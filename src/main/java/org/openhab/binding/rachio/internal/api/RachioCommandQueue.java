@@ -0,0 +1,227 @@
+/**
+ * Copyright (c) 2010-2018 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.rachio.internal.api;
+
+import static org.openhab.binding.rachio.RachioBindingConstants.*;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+
+import org.openhab.binding.rachio.internal.api.RachioApi.RachioApiResult;
+import org.openhab.binding.rachio.internal.api.RachioSingleFlight.RachioCall;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The {@link RachioCommandQueue} serializes the device commands of a bridge. The queue is drained by a single job on
+ * the bridge's scheduler, so commands are sent one after the other in order.
+ *
+ * - A stop command is always sent first and drops the zone starts of that device queued before it. The futures of the
+ * dropped starts complete with a CancellationException, the zones were not started.
+ * - A command of the same type for the same device (e.g. active ON, then OFF) replaces the queued one (last writer
+ * wins) if no other command of the device was queued after it. All callers of a replaced command get the result of the
+ * command, which was finally sent.
+ *
+ * @author Markus Michels (markus7017) - Initial contribution
+ */
+public class RachioCommandQueue {
+    private final Logger logger = LoggerFactory.getLogger(RachioCommandQueue.class);
+
+    public static final String CMD_ACTIVE = "active";
+    public static final String CMD_STOP = "stop";
+    public static final String CMD_RAIN_DELAY = "rainDelay";
+    public static final String CMD_RUN = "run"; // zone starts, never collapsed
+
+    private static class RachioQueuedCommand {
+        private final String deviceId;
+        private final String type;
+        private final long enqueued = System.currentTimeMillis();
+        private final CompletableFuture<RachioApiResult> future = new CompletableFuture<>();
+        private RachioCall<RachioApiResult> call;
+
+        private RachioQueuedCommand(String deviceId, String type, RachioCall<RachioApiResult> call) {
+            this.deviceId = deviceId;
+            this.type = type;
+            this.call = call;
+        }
+    }
+
+    private final ScheduledExecutorService scheduler;
+    private final LinkedList<RachioQueuedCommand> queue = new LinkedList<>();
+    private boolean draining = false; // a job is sending the queued commands
+    private boolean running = true;
+    private long lastWaitTime = 0;
+    private long maxWaitTime = 0;
+
+    /**
+     * Constructor
+     *
+     * @param scheduler Scheduler of the bridge handler, runs the job sending the commands
+     */
+    public RachioCommandQueue(ScheduledExecutorService scheduler) {
+        this.scheduler = scheduler;
+    }
+
+    /**
+     * Queue a command
+     *
+     * @param deviceId Device the command is sent to
+     * @param type Command type (CMD_xxx)
+     * @param call Api call
+     * @return future completing with the api result or a RachioApiException
+     */
+    public synchronized CompletableFuture<RachioApiResult> submit(String deviceId, String type,
+            RachioCall<RachioApiResult> call) {
+        if (!running) {
+            CompletableFuture<RachioApiResult> future = new CompletableFuture<>();
+            future.completeExceptionally(new RachioApiException("RachioQueue: Bridge disposed, command not sent"));
+            return future;
+        }
+
+        RachioQueuedCommand last = null; // last queued command of the device
+        RachioQueuedCommand queuedStop = null;
+        List<RachioQueuedCommand> dropped = new ArrayList<>();
+        Iterator<RachioQueuedCommand> it = queue.iterator();
+        while (it.hasNext()) {
+            RachioQueuedCommand queued = it.next();
+            if (!queued.deviceId.equals(deviceId)) {
+                continue;
+            }
+            if (type.equals(CMD_STOP) && queued.type.equals(CMD_RUN)) {
+                logger.debug("RachioQueue: Stop for device '{}', drop queued zone start", deviceId);
+                it.remove();
+                dropped.add(queued);
+                continue;
+            }
+            if (queued.type.equals(CMD_STOP)) {
+                queuedStop = queued;
+            }
+            last = queued;
+        }
+        for (RachioQueuedCommand d : dropped) {
+            d.future.completeExceptionally(
+                    new CancellationException("RachioQueue: Zone start superseded by stop, command not sent"));
+        }
+
+        // stops are sent first anyway, other commands only replace the last one of the device to keep the order
+        RachioQueuedCommand superseded = type.equals(CMD_STOP) ? queuedStop
+                : (last != null) && !type.equals(CMD_RUN) && last.type.equals(type) ? last : null;
+        if (superseded != null) {
+            logger.debug("RachioQueue: Queued {} command for device '{}' superseded", type, deviceId);
+            superseded.call = call;
+            return superseded.future;
+        }
+
+        RachioQueuedCommand command = new RachioQueuedCommand(deviceId, type, call);
+        if (queue.size() >= RACHIO_COMMAND_QUEUE_SIZE) {
+            command.future.completeExceptionally(
+                    new RachioApiException("RachioQueue: Too many pending commands, command rejected"));
+            return command.future;
+        }
+        if (type.equals(CMD_STOP)) {
+            // ahead of all other commands, but behind stops for other devices
+            int index = 0;
+            while ((index < queue.size()) && queue.get(index).type.equals(CMD_STOP)) {
+                index++;
+            }
+            queue.add(index, command);
+        } else {
+            queue.addLast(command);
+        }
+        startDraining();
+        return command.future;
+    }
+
+    /**
+     * @return number of queued commands
+     */
+    public synchronized int getQueueDepth() {
+        return queue.size();
+    }
+
+    /**
+     * @return time in ms the last command waited in the queue
+     */
+    public synchronized long getLastWaitTime() {
+        return lastWaitTime;
+    }
+
+    /**
+     * @return max time in ms a command waited in the queue
+     */
+    public synchronized long getMaxWaitTime() {
+        return maxWaitTime;
+    }
+
+    /**
+     * (Re-)enable the queue, e.g. when the bridge gets initialized again after a configuration change
+     */
+    public synchronized void start() {
+        running = true;
+    }
+
+    /**
+     * Stop sending commands, queued commands complete exceptionally
+     */
+    public synchronized void dispose() {
+        running = false;
+        RachioApiException e = new RachioApiException("RachioQueue: Bridge disposed, command not sent");
+        for (RachioQueuedCommand command : queue) {
+            command.future.completeExceptionally(e);
+        }
+        queue.clear();
+    }
+
+    private void startDraining() {
+        if (draining) {
+            return;
+        }
+        try {
+            scheduler.execute(this::processCommands);
+            draining = true;
+        } catch (RejectedExecutionException e) {
+            logger.debug("RachioQueue: Unable to schedule the command job: {}", e.toString());
+        }
+    }
+
+    private void processCommands() {
+        while (true) {
+            RachioQueuedCommand command;
+            int depth;
+            long waitTime;
+            synchronized (this) {
+                if (!running || queue.isEmpty()) {
+                    draining = false;
+                    return;
+                }
+                command = queue.removeFirst();
+                depth = queue.size();
+                waitTime = System.currentTimeMillis() - command.enqueued;
+                lastWaitTime = waitTime;
+                maxWaitTime = Math.max(maxWaitTime, waitTime);
+            }
+
+            logger.debug("RachioQueue: Send {} command for device '{}', waited {}ms, {} more queued", command.type,
+                    command.deviceId, waitTime, depth);
+            try {
+                command.future.complete(command.call.call());
+            } catch (RachioApiException | RuntimeException e) {
+                command.future.completeExceptionally(e);
+            }
+        }
+    }
+}
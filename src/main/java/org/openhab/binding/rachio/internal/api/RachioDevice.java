@@ -36,23 +36,23 @@ public class RachioDevice extends RachioCloudDevice {
     private final Logger logger = LoggerFactory.getLogger(RachioDevice.class);
 
     // extensions to cloud attributes
-    public String runList = "";
-    public Integer runTime = 0;
-    public String lastEvent = "";
-    public boolean paused = false;
-    public int rainDelay = 0;
+    public volatile String runList = "";
+    public volatile Integer runTime = 0;
+    public volatile String lastEvent = "";
+    public volatile boolean paused = false;
+    public volatile int rainDelay = 0;
 
     public ThingUID bridge_uid;
     public ThingUID dev_uid;
-    private HashMap<String, RachioZone> zoneList = new HashMap<String, RachioZone>();
+    private volatile HashMap<String, RachioZone> zoneList = new HashMap<String, RachioZone>();
     private RachioDeviceHandler thingHandler = null;
-    public RachioCloudNetworkSettings network = new RachioCloudNetworkSettings();
+    public volatile RachioCloudNetworkSettings network = new RachioCloudNetworkSettings();
     public String scheduleName = "";
 
     @SuppressWarnings("unused")
     public RachioDevice(RachioCloudDevice device) {
+        super(device);
         try {
-            RachioApi.copyMatchingFields(device, this);
             logger.trace("RachioDevice: Adding ddevice '{}' (id='{}', model='{}', on={}, status={}, deleted={})",
                     device.name, device.id, device.model, device.on, device.status, device.deleted);
             if (!device.deleted) {
@@ -317,6 +317,26 @@ public class RachioDevice extends RachioCloudDevice {
         return json;
     }
 
+    /**
+     * Build the request for zone/start_multiple, the zones run in the given order
+     *
+     * @param zoneRuntimes zone id -> runtime in seconds
+     * @return json string
+     */
+    public static String getRunZonesJson(Map<String, Integer> zoneRuntimes) {
+        String json = "{ \"zones\" : [";
+        int sortOrder = 1;
+        for (Map.Entry<String, Integer> ze : zoneRuntimes.entrySet()) {
+            if (sortOrder > 1) {
+                json = json + ", ";
+            }
+            json = json + "{ \"id\" : \"" + ze.getKey() + "\", \"duration\" : " + ze.getValue() + ", \"sortOrder\" : "
+                    + sortOrder++ + "}";
+        }
+        json = json + "] }";
+        return json;
+    }
+
     /**
      * Get a list of all zones belonging to this controller
      *
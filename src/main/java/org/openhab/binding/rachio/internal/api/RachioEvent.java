@@ -19,6 +19,8 @@ import org.openhab.binding.rachio.internal.api.RachioCloudDevice.RachioCloudNetw
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.google.gson.JsonParseException;
+
 /**
  * The {@link RachioEvent} A Rachio webhook event
  *
@@ -27,13 +29,13 @@ import org.slf4j.LoggerFactory;
 public class RachioEvent {
     private final Logger logger = LoggerFactory.getLogger(RachioEvent.class);
 
-    public class RachioEventProperty {
+    public static class RachioEventProperty {
         public String propertyName;
         public String oldValue;
         public String newValue;
     }
 
-    public class RachioZoneStatus {
+    public static class RachioZoneStatus {
         public Integer duration = 0;
         public String scheduleType = "";
         public Integer zoneNumber = 0;
@@ -150,7 +152,13 @@ public class RachioEvent {
                                                // "255.255.255.0" }
     String pin = "";
 
-    public RachioApiResult apiResult = new RachioApiResult();
+    public RachioApiResult apiResult; // rate limit headers of the webhook request, null if not included
+    public transient long receivedNanos = 0; // System.nanoTime() when the servlet received the event
+    public transient long parsedNanos = 0; // System.nanoTime() when the event was parsed
+    public transient long queuedNanos = 0; // System.nanoTime() when the event was queued for the bridge
+    public transient long handlerNanos = 0; // time spent in the thing handler
+    public transient Object jfrEvent; // see RachioFlightRecorder.beginWebHook()
+    transient CharSequence json; // not decoded yet, see decode()
 
     // public JsonArray eventDatas;
     public HashMap<String, String> eventParms;
@@ -160,4 +168,18 @@ public class RachioEvent {
         // eventDatas = new JsonArray();
     }
 
+    /**
+     * The servlet only decodes the fields required for routing (externalId, deviceId, type, subType). The remaining
+     * fields are decoded when the event gets consumed by a thing handler.
+     *
+     * @throws JsonParseException Invalid event JSON
+     */
+    public void decode() throws JsonParseException {
+        if (json != null) {
+            String data = json.toString();
+            json = null;
+            RachioJsonCodec.readEvent(data, this);
+        }
+    }
+
 } // class RachioEvent
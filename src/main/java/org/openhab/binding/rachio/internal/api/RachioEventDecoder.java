@@ -0,0 +1,232 @@
+/**
+ * Copyright (c) 2010-2018 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.rachio.internal.api;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.text.MessageFormat;
+
+import com.google.gson.JsonParseException;
+import com.google.gson.stream.JsonReader;
+
+/**
+ * The {@link RachioEventDecoder} reads a webhook request body once and decodes the routing fields of the
+ * {@link RachioEvent}. The API v3 events contain nested objects as escaped strings (e.g. "network":"{\"gw\":...}"),
+ * which are un-nested on the fly while the bytes are streamed into the JsonReader:
+ *
+ * - backslashes are dropped
+ * - a quote followed by '{' and a quote following '}' are dropped
+ * - "?" becomes '?' (e.g. summary of DEVICE_COLD_REBOOT_EVENT: tap "?" above to contact Rachio Support)
+ *
+ * All those characters are ASCII, so it works on the UTF-8 bytes, which are then decoded into chars for the JsonReader.
+ * The sanitized JSON is kept with the event, the full event is decoded when it gets consumed (see RachioEvent.decode()).
+ * The body size is limited to maxBytes.
+ *
+ * @author Markus Michels (markus7017) - Initial contribution
+ */
+class RachioEventDecoder extends Reader {
+    private static final int EOF = -1;
+    private static final char REPLACEMENT_CHAR = '\uFFFD'; // invalid UTF-8 sequence
+
+    private final InputStream in;
+    private final int maxBytes;
+    private final byte[] buffer = new byte[1024];
+    private int pos = 0;
+    private int limit = 0;
+    private int total = 0;
+    private boolean tooLarge = false;
+
+    // lookahead: raw bytes pushed back (stack) and sanitized bytes waiting to be returned
+    private final int[] unread = new int[3];
+    private int unreadCount = 0;
+    private final int[] pending = new int[2];
+    private int pendingPos = 0;
+    private int pendingLen = 0;
+    private int lowSurrogate = EOF; // 2nd char of a 4 byte sequence, which didn't fit into the caller's buffer
+
+    private final StringBuilder data = new StringBuilder(1024); // sanitized JSON
+
+    /**
+     * Constructor
+     *
+     * @param in Request body
+     * @param maxBytes Max size of the body
+     */
+    RachioEventDecoder(InputStream in, int maxBytes) {
+        this.in = in;
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * Decode the routing fields of the event
+     *
+     * @return event, null if the body is empty
+     * @throws JsonParseException Invalid JSON, body could not be read or is too large (see isTooLarge())
+     */
+    RachioEvent decodeHeader() throws JsonParseException {
+        RachioEvent event = RachioJsonCodec.readEventHeader(new JsonReader(this));
+        if (event != null) {
+            event.json = data; // no copy, the decoder is not used afterwards
+        }
+        return event;
+    }
+
+    /**
+     * @return true: decoding failed, because the body exceeds maxBytes
+     */
+    boolean isTooLarge() {
+        return tooLarge;
+    }
+
+    /**
+     * @return the sanitized body as far as it was decoded
+     */
+    String getData() {
+        return data.toString();
+    }
+
+    @Override
+    public int read(char[] cbuf, int off, int len) throws IOException {
+        int n = 0;
+        if ((lowSurrogate != EOF) && (len > 0)) {
+            cbuf[off + n++] = (char) lowSurrogate;
+            lowSurrogate = EOF;
+        }
+        while (n < len) {
+            int b = next();
+            if (b == EOF) {
+                break;
+            }
+            if (b < 0x80) {
+                cbuf[off + n++] = (char) b;
+                continue;
+            }
+            int codePoint = decodeUtf8(b);
+            if (codePoint < Character.MIN_SUPPLEMENTARY_CODE_POINT) {
+                cbuf[off + n++] = (char) codePoint;
+            } else {
+                cbuf[off + n++] = Character.highSurrogate(codePoint);
+                if (n < len) {
+                    cbuf[off + n++] = Character.lowSurrogate(codePoint);
+                } else {
+                    lowSurrogate = Character.lowSurrogate(codePoint);
+                }
+            }
+        }
+        data.append(cbuf, off, n);
+        return (n == 0) && (len > 0) ? EOF : n;
+    }
+
+    @Override
+    public void close() {
+        // the servlet container owns the request stream
+    }
+
+    /**
+     * Decode a multi-byte UTF-8 sequence, continuation bytes are never touched by the sanitizer
+     *
+     * @param lead First byte of the sequence
+     * @return code point, REPLACEMENT_CHAR if the sequence is invalid
+     */
+    private int decodeUtf8(int lead) throws IOException {
+        int count;
+        int codePoint;
+        if ((lead & 0xe0) == 0xc0) {
+            count = 1;
+            codePoint = lead & 0x1f;
+        } else if ((lead & 0xf0) == 0xe0) {
+            count = 2;
+            codePoint = lead & 0x0f;
+        } else if ((lead & 0xf8) == 0xf0) {
+            count = 3;
+            codePoint = lead & 0x07;
+        } else {
+            return REPLACEMENT_CHAR;
+        }
+        for (int i = 0; i < count; i++) {
+            int b = next();
+            if ((b & 0xc0) != 0x80) {
+                pushBack(b); // EOF or start of the next character
+                return REPLACEMENT_CHAR;
+            }
+            codePoint = (codePoint << 6) | (b & 0x3f);
+        }
+        return codePoint <= Character.MAX_CODE_POINT ? codePoint : REPLACEMENT_CHAR;
+    }
+
+    /**
+     * @return next sanitized byte
+     */
+    private int next() throws IOException {
+        if (pendingPos < pendingLen) {
+            return pending[pendingPos++];
+        }
+
+        int b = raw();
+        if (b == '"') {
+            int c = raw();
+            if (c == '{') {
+                return c; // "{ -> {
+            }
+            if (c == '?') {
+                int d = raw();
+                if (d == '"') {
+                    pending[0] = '?'; // "?" -> '?'
+                    pending[1] = '\'';
+                    pendingPos = 0;
+                    pendingLen = 2;
+                    return '\'';
+                }
+                pushBack(d);
+            }
+            pushBack(c);
+        } else if (b == '}') {
+            int c = raw();
+            if (c != '"') { // }" -> }
+                pushBack(c);
+            }
+        }
+        return b;
+    }
+
+    /**
+     * @return next byte of the body, backslashes are skipped
+     */
+    private int raw() throws IOException {
+        if (unreadCount > 0) {
+            return unread[--unreadCount];
+        }
+        while (true) {
+            if (pos == limit) {
+                int n = in.read(buffer, 0, buffer.length);
+                if (n <= 0) {
+                    return EOF;
+                }
+                pos = 0;
+                limit = n;
+                total += n;
+                if (total > maxBytes) {
+                    tooLarge = true;
+                    throw new IOException(MessageFormat.format("Request body exceeds {0} bytes", maxBytes));
+                }
+            }
+            int b = buffer[pos++] & 0xff;
+            if (b != '\\') {
+                return b;
+            }
+        }
+    }
+
+    private void pushBack(int b) {
+        unread[unreadCount++] = b;
+    }
+}
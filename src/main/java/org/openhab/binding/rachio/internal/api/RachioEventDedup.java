@@ -0,0 +1,119 @@
+/**
+ * Copyright (c) 2010-2018 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.rachio.internal.api;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * The {@link RachioEventDedup} detects webhook events redelivered by the Rachio cloud. An event is a duplicate if its
+ * id or its (deviceId, type, sequence) was seen within the time window. The sequence is only compared within the
+ * window, because the controller restarts the sequence after a reboot.
+ *
+ * The cache is bounded: the oldest keys are removed when maxSize is reached.
+ *
+ * @author Markus Michels (markus7017) - Initial contribution
+ */
+public class RachioEventDedup {
+    private final int maxSize;
+    private final long window;
+
+    // key -> time first seen (ms), insertion order = time order
+    private final LinkedHashMap<String, Long> seen;
+
+    /**
+     * Constructor
+     *
+     * @param maxSize Max number of keys
+     * @param window Time window in seconds
+     */
+    public RachioEventDedup(int maxSize, int window) {
+        this.maxSize = maxSize;
+        this.window = window * 1000L;
+        this.seen = new LinkedHashMap<String, Long>(16, 0.75f, false) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Long> eldest) {
+                return size() > RachioEventDedup.this.maxSize;
+            }
+        };
+    }
+
+    /**
+     * Check the event and remember its keys
+     *
+     * @param event Inbound webhook event (routing fields incl. id and sequence)
+     * @return true: event was seen before
+     */
+    public boolean isDuplicate(RachioEvent event) {
+        String idKey = getIdKey(event);
+        String seqKey = getSequenceKey(event);
+        if ((idKey == null) && (seqKey == null)) {
+            return false; // no key to compare
+        }
+
+        boolean duplicate;
+        synchronized (this) {
+            long now = System.currentTimeMillis();
+            expire(now);
+            duplicate = ((idKey != null) && seen.containsKey(idKey)) || ((seqKey != null) && seen.containsKey(seqKey));
+            if (!duplicate) {
+                if (idKey != null) {
+                    seen.put(idKey, now);
+                }
+                if (seqKey != null) {
+                    seen.put(seqKey, now);
+                }
+            }
+        }
+        RachioMetrics.recordDedup(duplicate);
+        return duplicate;
+    }
+
+    /**
+     * Forget the keys of an event, which was not processed (e.g. queue full), so a redelivery isn't dropped
+     *
+     * @param event Event passed to isDuplicate() before
+     */
+    public synchronized void remove(RachioEvent event) {
+        String idKey = getIdKey(event);
+        String seqKey = getSequenceKey(event);
+        if (idKey != null) {
+            seen.remove(idKey);
+        }
+        if (seqKey != null) {
+            seen.remove(seqKey);
+        }
+    }
+
+    public synchronized void clear() {
+        seen.clear();
+    }
+
+    private static String getIdKey(RachioEvent event) {
+        return !event.id.isEmpty() ? "id:" + event.id : null;
+    }
+
+    private static String getSequenceKey(RachioEvent event) {
+        return (event.sequence >= 0) && !event.deviceId.isEmpty()
+                ? "seq:" + event.deviceId + ":" + event.type + ":" + event.sequence
+                : null;
+    }
+
+    private void expire(long now) {
+        Iterator<Long> it = seen.values().iterator();
+        while (it.hasNext() && (now - it.next() > window)) {
+            it.remove();
+        }
+    }
+}
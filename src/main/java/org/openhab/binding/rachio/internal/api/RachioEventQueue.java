@@ -0,0 +1,324 @@
+/**
+ * Copyright (c) 2010-2018 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.rachio.internal.api;
+
+import static org.openhab.binding.rachio.RachioBindingConstants.*;
+
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The {@link RachioEventQueue} decouples the webhook servlet from the thing handlers. The servlet only parses and
+ * routes the event to the bridge, which queues it and returns, so Rachio gets its response immediately.
+ *
+ * Each device (controller) has its own lane: the events of a device are processed one after the other, events of
+ * different devices run in parallel on a small per-bridge thread pool. So a ZONE_STARTED and ZONE_STOPPED never update
+ * the device/zone state at the same time, and there is no lock across devices. The cloud poll applies its update of a
+ * device through runExclusive(), so it doesn't overlap with the processing of an event of the same device.
+ *
+ * Concurrent deliveries may arrive out of order. A lane holds each event for RACHIO_EVENT_REORDER_DELAY ms and
+ * releases the events ordered by event time, then sequence. The event time leads, because the sequence restarts after
+ * a controller reboot and events in the same second are ordered by the sequence. An event arriving after a newer one
+ * of the same device was processed is still processed (it may carry other information), but it's counted as late and
+ * the resync handler is called, so the bridge polls the current state.
+ *
+ * The queue is bounded by the total number of events in all lanes. If it's full the oldest event of the same device
+ * (OVERFLOW_DROP_OLDEST) or the new event (OVERFLOW_DROP_NEWEST) is dropped and the resync handler is called.
+ *
+ * @author Markus Michels (markus7017) - Initial contribution
+ */
+public class RachioEventQueue {
+    private final Logger logger = LoggerFactory.getLogger(RachioEventQueue.class);
+
+    public static final String OVERFLOW_DROP_OLDEST = "dropOldest";
+    public static final String OVERFLOW_DROP_NEWEST = "dropNewest";
+
+    private static final Comparator<RachioQueuedEvent> EVENT_ORDER = Comparator
+            .comparingLong((RachioQueuedEvent e) -> e.eventTime).thenComparingInt(e -> e.event.sequence)
+            .thenComparingLong(e -> e.arrival);
+
+    private static class RachioQueuedEvent {
+        private final RachioEvent event;
+        private final long eventTime; // ms
+        private final long arrival; // arrival order within the queue
+        private final long queuedAt; // ms
+
+        private RachioQueuedEvent(RachioEvent event, long arrival) {
+            this.event = event;
+            this.arrival = arrival;
+            this.queuedAt = System.currentTimeMillis();
+            this.eventTime = getEventTime(event, queuedAt);
+        }
+    }
+
+    private static class RachioEventLane {
+        private final String deviceId;
+        private final PriorityQueue<RachioQueuedEvent> buffer = new PriorityQueue<>(EVENT_ORDER);
+        private RachioQueuedEvent last; // last event released
+        private long lastArrival = -1;
+        private boolean scheduled = false; // a drain task is pending or running
+        private final Object processing = new Object(); // held while an event or update of the device is applied
+
+        private RachioEventLane(String deviceId) {
+            this.deviceId = deviceId;
+        }
+    }
+
+    private final String name;
+    private final Consumer<RachioEvent> handler;
+    private final Runnable resyncHandler;
+    private final Map<String, RachioEventLane> lanes = new ConcurrentHashMap<>();
+    private final AtomicInteger size = new AtomicInteger();
+    private final AtomicLong arrivals = new AtomicLong();
+    private volatile int capacity = DEFAULT_EVENT_QUEUE_SIZE;
+    private volatile boolean dropOldest = true;
+    private volatile ScheduledThreadPoolExecutor executor;
+    private volatile boolean running = true;
+
+    /**
+     * Constructor
+     *
+     * @param name Name of the queue (bridge id), used for the worker threads and metrics
+     * @param handler Processes a queued event (called by a worker thread, serialized per device)
+     * @param resyncHandler Called when an event was dropped or arrived late
+     */
+    public RachioEventQueue(String name, Consumer<RachioEvent> handler, Runnable resyncHandler) {
+        this.name = name;
+        this.handler = handler;
+        this.resyncHandler = resyncHandler;
+    }
+
+    /**
+     * Set queue size and overflow handling
+     *
+     * @param capacity Max number of queued events (all devices)
+     * @param overflow OVERFLOW_DROP_OLDEST or OVERFLOW_DROP_NEWEST
+     */
+    public void setCapacity(int capacity, String overflow) {
+        this.capacity = Math.max(1, capacity);
+        this.dropOldest = !overflow.equalsIgnoreCase(OVERFLOW_DROP_NEWEST);
+        RachioMetrics.recordEventQueue(name, size.get(), this.capacity);
+    }
+
+    /**
+     * Queue an event, doesn't block
+     *
+     * @param event Inbound webhook event
+     * @return dropped event: the given event (queue is full or disposed), the oldest event of the device, which was
+     *         evicted to make room for it, or null if nothing was dropped
+     */
+    public RachioEvent offer(RachioEvent event) {
+        ScheduledThreadPoolExecutor executor = this.executor;
+        if (!running || (executor == null)) {
+            return event;
+        }
+
+        RachioEventLane lane = lanes.computeIfAbsent(event.deviceId, RachioEventLane::new);
+        RachioEvent dropped = null;
+        synchronized (lane) {
+            if (size.get() >= capacity) {
+                RachioQueuedEvent oldest = dropOldest ? removeOldest(lane) : null;
+                dropped = oldest != null ? oldest.event : event;
+            }
+            if (dropped != event) {
+                event.queuedNanos = System.nanoTime();
+                lane.buffer.add(new RachioQueuedEvent(event, arrivals.incrementAndGet()));
+                if (dropped == null) {
+                    size.incrementAndGet();
+                }
+                if (!lane.scheduled) {
+                    lane.scheduled = schedule(executor, lane, RACHIO_EVENT_REORDER_DELAY);
+                }
+            }
+        }
+        RachioMetrics.recordEventQueue(name, size.get(), capacity);
+
+        if (dropped != null) {
+            logger.debug("RachioEventQueue: Queue for bridge '{}' is full, event {}.{} for device '{}' dropped", name,
+                    dropped.type, dropped.subType, dropped.deviceId);
+            RachioMetrics.recordEvent(dropped.type, RachioMetrics.EVENT_DROPPED);
+            resyncHandler.run();
+        }
+        return dropped;
+    }
+
+    /**
+     * Apply a state update of a device (e.g. from the cloud poll) serialized with the processing of its events
+     *
+     * @param deviceId Device id
+     * @param update Applies the update
+     * @return result of the update
+     */
+    public <T> T runExclusive(String deviceId, Supplier<T> update) {
+        RachioEventLane lane = lanes.computeIfAbsent(deviceId, RachioEventLane::new);
+        synchronized (lane.processing) {
+            return update.get();
+        }
+    }
+
+    /**
+     * @return number of queued events
+     */
+    public int getQueueDepth() {
+        return size.get();
+    }
+
+    /**
+     * (Re-)enable the queue, e.g. when the bridge gets initialized again after a configuration change
+     */
+    public synchronized void start() {
+        if ((executor == null) || executor.isShutdown()) {
+            AtomicInteger threadCount = new AtomicInteger();
+            ScheduledThreadPoolExecutor pool = new ScheduledThreadPoolExecutor(RACHIO_EVENT_LANE_THREADS, r -> {
+                Thread thread = new Thread(r,
+                        "OH-binding-" + BINDING_ID + "-events-" + name + "-" + threadCount.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+            pool.setKeepAliveTime(60, TimeUnit.SECONDS);
+            pool.allowCoreThreadTimeOut(true); // no threads while there are no events
+            executor = pool;
+        }
+        running = true;
+    }
+
+    /**
+     * Stop the workers, queued events are discarded
+     */
+    public synchronized void dispose() {
+        running = false;
+        if (executor != null) {
+            executor.shutdownNow();
+            executor = null;
+        }
+        lanes.clear();
+        size.set(0);
+        RachioMetrics.recordEventQueue(name, 0, capacity);
+    }
+
+    /**
+     * Process the events of a lane until it's empty or the next event has to wait for the reorder delay
+     *
+     * @param lane Device lane
+     */
+    private void drain(RachioEventLane lane) {
+        while (true) {
+            RachioQueuedEvent next;
+            boolean late;
+            boolean reordered;
+            synchronized (lane) {
+                next = lane.buffer.peek();
+                if ((next == null) || !running) {
+                    lane.scheduled = false;
+                    return;
+                }
+                long wait = next.queuedAt + RACHIO_EVENT_REORDER_DELAY - System.currentTimeMillis();
+                if (wait > 0) {
+                    ScheduledThreadPoolExecutor executor = this.executor;
+                    lane.scheduled = (executor != null) && schedule(executor, lane, wait);
+                    return;
+                }
+                lane.buffer.poll();
+                late = (lane.last != null) && (EVENT_ORDER.compare(next, lane.last) < 0);
+                reordered = next.arrival < lane.lastArrival;
+                if (!late) {
+                    lane.last = next;
+                }
+                lane.lastArrival = Math.max(lane.lastArrival, next.arrival);
+            }
+            RachioMetrics.recordEventQueue(name, size.decrementAndGet(), capacity);
+
+            RachioEvent event = next.event;
+            if (late || reordered) {
+                RachioMetrics.recordReorder(late);
+            }
+            if (late) {
+                logger.debug("RachioEventQueue: Event {}.{} for device '{}' arrived late (sequence={}), resync",
+                        event.type, event.subType, lane.deviceId, event.sequence);
+                resyncHandler.run();
+            }
+            try {
+                synchronized (lane.processing) {
+                    handler.accept(event);
+                }
+            } catch (RuntimeException e) {
+                logger.error("RachioEventQueue: Unable to process event {}.{} for device '{}': {}", event.type,
+                        event.subType, event.deviceId, e.toString());
+            }
+        }
+    }
+
+    /**
+     * Drop the oldest event of the lane (queue is full)
+     *
+     * @param lane Device lane
+     * @return dropped event, null if the lane is empty
+     */
+    private static RachioQueuedEvent removeOldest(RachioEventLane lane) {
+        RachioQueuedEvent oldest = null;
+        for (RachioQueuedEvent e : lane.buffer) {
+            if ((oldest == null) || (e.arrival < oldest.arrival)) {
+                oldest = e;
+            }
+        }
+        if (oldest != null) {
+            Iterator<RachioQueuedEvent> it = lane.buffer.iterator();
+            while (it.hasNext()) {
+                if (it.next() == oldest) {
+                    it.remove();
+                    break;
+                }
+            }
+        }
+        return oldest;
+    }
+
+    private boolean schedule(ScheduledThreadPoolExecutor executor, RachioEventLane lane, long delay) {
+        try {
+            executor.schedule(() -> drain(lane), delay, TimeUnit.MILLISECONDS);
+            return true;
+        } catch (RejectedExecutionException e) {
+            return false; // disposed
+        }
+    }
+
+    /**
+     * @return time of the event (ms): eventDate or timestamp, time of arrival if the event has neither
+     */
+    private static long getEventTime(RachioEvent event, long arrivalTime) {
+        if (event.eventDate > 0) {
+            return event.eventDate;
+        }
+        if (!event.timestamp.isEmpty()) {
+            try {
+                return Instant.parse(event.timestamp).toEpochMilli();
+            } catch (DateTimeParseException e) {
+                // use time of arrival
+            }
+        }
+        return arrivalTime;
+    }
+}
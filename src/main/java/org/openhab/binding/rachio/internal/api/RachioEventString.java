@@ -11,8 +11,6 @@
 
 package org.openhab.binding.rachio.internal.api;
 
-import com.google.gson.Gson;
-
 /**
  * Subset of event properties that will be posted to the thing's event channel
  *
@@ -68,7 +66,6 @@ public class RachioEventString {
 
     private genericEvent gEvent;
     private zoneEvent zEvent;
-    private Gson gson = new Gson();
 
     public RachioEventString(RachioEvent event) {
         if (event.type.equals("ZONE_STATUS")) {
@@ -82,10 +79,10 @@ public class RachioEventString {
         // String json = gson.toJson(this);
         // String str = json.contains("\"gson\"") ? json.substring(0, json.indexOf("\"gson\"") - 1) + "}" : json;
         String str = "";
-        if (zEvent.type != null) {
-            str = gson.toJson(zEvent);
+        if (zEvent != null) {
+            str = RachioJsonCodec.toJson(zEvent);
         } else {
-            str = gson.toJson(gEvent);
+            str = RachioJsonCodec.toJson(gEvent);
         }
         return str;
     }
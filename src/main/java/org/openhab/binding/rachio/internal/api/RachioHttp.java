@@ -14,14 +14,21 @@ package org.openhab.binding.rachio.internal.api;
 import static java.net.HttpURLConnection.*;
 import static org.openhab.binding.rachio.RachioBindingConstants.*;
 
-import java.io.BufferedReader;
-import java.io.DataOutputStream;
-import java.io.InputStreamReader;
-import java.net.HttpURLConnection;
-import java.net.URL;
+import java.io.IOException;
 import java.text.MessageFormat;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Pattern;
 
 import org.openhab.binding.rachio.internal.api.RachioApi.RachioApiResult;
+import org.openhab.binding.rachio.internal.api.RachioRequestGovernor.Priority;
+import org.openhab.binding.rachio.internal.api.RachioResponseCache.RachioCachedResponse;
+import org.openhab.binding.rachio.internal.api.RachioTransport.RachioContentReader;
+import org.openhab.binding.rachio.internal.api.RachioTransport.RachioTransportResponse;
+import org.openhab.binding.rachio.internal.jfr.RachioFlightRecorder;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;;
 
@@ -35,8 +42,17 @@ import org.slf4j.LoggerFactory;;
 public class RachioHttp {
     private final Logger logger = LoggerFactory.getLogger(RachioHttp.class);
 
-    private int apiCalls = 0;
+    private static volatile RachioTransport defaultTransport = new RachioUrlConnectionTransport();
+    private static final RachioResponseCache responseCache = new RachioResponseCache();
+    private static final Map<String, RachioCircuitBreaker> circuitBreakers = new ConcurrentHashMap<>();
+    private static final Pattern ID_PATTERN = Pattern.compile("/[0-9a-fA-F-]{32,36}(?=/|$)");
+    private static final Pattern HOST_PATTERN = Pattern.compile("^[a-zA-Z]+://[^/]+");
+
+    private final AtomicInteger apiCalls = new AtomicInteger();
     private String apikey = "";
+    private final RachioTransport transport;
+    private final RachioRequestGovernor governor;
+    private Priority priority = Priority.POLL;
 
     /**
      * Constructor for the Rachio API class to create a connection to the Rachio cloud service.
@@ -45,7 +61,43 @@ public class RachioHttp {
      * @throws Exception
      */
     public RachioHttp(final String key) throws RachioApiException {
+        this(key, defaultTransport);
+    }
+
+    /**
+     * Constructor for the Rachio API class using a specific transport.
+     *
+     * @param key Rachio API Access token (see Web UI)
+     * @param transport Transport used to send the requests
+     */
+    public RachioHttp(final String key, final RachioTransport transport) throws RachioApiException {
         apikey = key;
+        this.transport = transport;
+        governor = (key != null) && !key.isEmpty() ? RachioRequestGovernor.getInstance(key) : null;
+    }
+
+    /**
+     * Set the priority for GET/POST/DELETE requests. PUT requests are user commands and always use
+     * Priority.COMMAND.
+     *
+     * @param priority Priority used with the request governor
+     */
+    public void setPriority(Priority priority) {
+        this.priority = priority;
+    }
+
+    public Priority getPriority() {
+        return priority;
+    }
+
+    /**
+     * Set the transport used by new RachioHttp instances (e.g. the pooled http client once the HttpClientFactory is
+     * available). Passing null falls back to HttpURLConnection.
+     *
+     * @param transport Transport for new instances, null=use HttpURLConnection
+     */
+    public static void setDefaultTransport(RachioTransport transport) {
+        defaultTransport = transport != null ? transport : new RachioUrlConnectionTransport();
     }
 
     /**
@@ -53,11 +105,43 @@ public class RachioHttp {
      *
      * @param url The URL to send a GET request to.
      * @param urlParameters List of parameters to use in the URL for the GET request. Null if no parameters.
-     * @return RachioApiResult including GET response, http code etc.
+     * @return RachioApiResult including GET response, http code etc. Concurrent identical requests of the same
+     *         priority share the result.
      * @throws Exception
      */
     public RachioApiResult httpGet(String url, String urlParameters) throws RachioApiException {
-        return httpRequest(HTTP_METHOD_GET, url, urlParameters, null);
+        // a poll rejected by the governor must not fail a joining command-priority request
+        String key = HTTP_METHOD_GET + " " + priority + " " + apikey + " " + url
+                + (urlParameters != null ? "?" + urlParameters : "");
+        return RachioSingleFlight.execute(key, () -> httpRequest(HTTP_METHOD_GET, url, urlParameters, null, null));
+    }
+
+    /**
+     * Send a HTTP GET request and pass the response body to the given reader (streaming). resultString of the returned
+     * RachioApiResult stays empty on success.
+     *
+     * @param url The URL to send a GET request to.
+     * @param urlParameters List of parameters to use in the URL for the GET request. Null if no parameters.
+     * @param contentReader Reader consuming the response body
+     * @return RachioApiResult including http code, rate limits etc.
+     * @throws RachioApiException
+     */
+    public RachioApiResult httpGet(String url, String urlParameters, RachioContentReader contentReader)
+            throws RachioApiException {
+        return httpRequest(HTTP_METHOD_GET, url, urlParameters, null, contentReader);
+    }
+
+    /**
+     * Send a HTTP GET request without using the response cache, e.g. to verify data, which could have been changed
+     * by another client. The response replaces the cached one.
+     *
+     * @param url The URL to send a GET request to.
+     * @param urlParameters List of parameters to use in the URL for the GET request. Null if no parameters.
+     * @return RachioApiResult including GET response, http code etc.
+     * @throws RachioApiException
+     */
+    public RachioApiResult httpGetUncached(String url, String urlParameters) throws RachioApiException {
+        return httpRequest(HTTP_METHOD_GET, url, urlParameters, null, null, false);
     }
 
     /**
@@ -69,7 +153,7 @@ public class RachioHttp {
      * @throws Exception
      */
     public RachioApiResult httpPut(String url, String putData) throws RachioApiException {
-        return httpRequest(HTTP_METHOD_PUT, url, null, putData);
+        return httpRequest(HTTP_METHOD_PUT, url, null, putData, null);
     }
 
     /**
@@ -81,7 +165,7 @@ public class RachioHttp {
      * @throws Exception
      */
     public RachioApiResult httpPost(String url, String postData) throws RachioApiException {
-        return httpRequest(HTTP_METHOD_POST, url, null, postData);
+        return httpRequest(HTTP_METHOD_POST, url, null, postData, null);
     }
 
     /**
@@ -93,7 +177,7 @@ public class RachioHttp {
      * @throws Exception if something went wrong (e.g. unable to connect)
      */
     public RachioApiResult httpDelete(String url, String urlParameters) throws RachioApiException {
-        return httpRequest(HTTP_METHOD_DELETE, url, urlParameters, null);
+        return httpRequest(HTTP_METHOD_DELETE, url, urlParameters, null, null);
     }
 
     /**
@@ -104,49 +188,115 @@ public class RachioHttp {
      * @return RachioApiResult including GET response, http code etc.
      * @throws Exception
      */
-    protected RachioApiResult httpRequest(String method, String url, String urlParameters, String reqDatas)
-            throws RachioApiException {
+    protected RachioApiResult httpRequest(String method, String url, String urlParameters, String reqDatas,
+            RachioContentReader contentReader) throws RachioApiException {
+        return httpRequest(method, url, urlParameters, reqDatas, contentReader, true);
+    }
+
+    private RachioApiResult httpRequest(String method, String url, String urlParameters, String reqDatas,
+            RachioContentReader contentReader, boolean useCache) throws RachioApiException {
 
         RachioApiResult result = new RachioApiResult();
         try {
-            apiCalls++;
+            int callNumber = apiCalls.incrementAndGet();
 
-            URL location = null;
-            if (urlParameters != null) {
-                location = new URL(url + "?" + urlParameters);
-            } else {
-                location = new URL(url);
-            }
+            String location = urlParameters != null ? url + "?" + urlParameters : url;
             result.requestMethod = method;
-            result.url = location.toString();
-            result.apiCalls = apiCalls;
-
-            HttpURLConnection request = (HttpURLConnection) location.openConnection();
+            result.url = location;
+            result.apiCalls = callNumber;
             if (apikey != null) {
-                request.setRequestProperty("Authorization", "Bearer " + apikey);
                 result.apikey = apikey;
             }
-            request.setRequestMethod(method);
-            request.setConnectTimeout(15000); // set timeout to 15 seconds
-            request.setRequestProperty("User-Agent", SERVLET_WEBHOOK_USER_AGENT);
-            request.setRequestProperty("Content-Type", SERVLET_WEBHOOK_APPLICATION_JSON);
-            logger.trace("RachioHttp[Call #{}]: Call Rachio cloud service: {} '{}')", apiCalls,
-                    request.getRequestMethod(), result.url);
-            if (method.equals(HTTP_METHOD_PUT) || method.equals(HTTP_METHOD_POST)) {
-                request.setDoOutput(true);
-                DataOutputStream wr = new DataOutputStream(request.getOutputStream());
-                wr.writeBytes(reqDatas);
-                wr.flush();
-                wr.close();
+
+            boolean cacheable = method.equals(HTTP_METHOD_GET) && (contentReader == null);
+            RachioCachedResponse cached = cacheable && useCache ? responseCache.get(apikey, location) : null;
+            if ((cached != null) && cached.isFresh()) {
+                // the cached entry is shared, return only its body, rate limit information comes from the cloud
+                logger.trace("RachioHttp: {} '{}' served from cache", method, location);
+                result.responseCode = cached.result.responseCode;
+                result.resultString = cached.result.resultString;
+                result.fromCache = true;
+                return result;
+            }
+            Map<String, String> requestHeaders = null;
+            if (cached != null) {
+                // revalidate instead of fetching the data again
+                requestHeaders = new HashMap<>();
+                if (cached.etag != null) {
+                    requestHeaders.put(HTTP_HEADER_IF_NONE_MATCH, cached.etag);
+                }
+                if (cached.lastModified != null) {
+                    requestHeaders.put(HTTP_HEADER_IF_MODIFIED_SINCE, cached.lastModified);
+                }
             }
-            BufferedReader in = new BufferedReader(new InputStreamReader(request.getInputStream()));
-            StringBuilder response = new StringBuilder();
-
-            result.responseCode = request.getResponseCode();
-            if (request.getHeaderField(RACHIO_JSON_RATE_LIMIT) != null) {
-                result.setRateLimit(request.getHeaderField(RACHIO_JSON_RATE_LIMIT),
-                        request.getHeaderField(RACHIO_JSON_RATE_REMAINING),
-                        request.getHeaderField(RACHIO_JSON_RATE_RESET));
+
+            Priority callPriority = method.equals(HTTP_METHOD_PUT) ? Priority.COMMAND : priority;
+            boolean idempotent = method.equals(HTTP_METHOD_GET) || method.equals(HTTP_METHOD_PUT);
+            String endpoint = getEndpoint(url);
+            RachioCircuitBreaker breaker = circuitBreakers.computeIfAbsent(apikey + " " + endpoint,
+                    key -> new RachioCircuitBreaker(endpoint));
+            RachioTransportResponse response = null;
+            for (int attempt = 0;; attempt++) {
+                // each attempt (including retries) is charged against the rate limit
+                if ((governor != null) && !governor.tryAcquire(callPriority)) {
+                    String message = MessageFormat.format("RachioHttp: {0} {1} skipped, remaining API calls are "
+                            + "reserved for higher priority requests", method, url);
+                    throw new RachioApiException(message, result);
+                }
+                if (!breaker.allowRequest()) {
+                    if (governor != null) {
+                        governor.release();
+                    }
+                    String message = MessageFormat.format(
+                            "RachioHttp: {0} {1} not sent, Rachio cloud is not reachable (retry in {2}s)", method, url,
+                            RACHIO_CB_OPEN_TIME);
+                    throw new RachioApiException(message, result);
+                }
+
+                logger.trace("RachioHttp[Call #{}]: Call Rachio cloud service: {} '{}')", callNumber, method,
+                        result.url);
+                boolean retry = idempotent && (attempt < RACHIO_HTTP_MAX_RETRIES);
+                boolean reported = false;
+                long started = System.nanoTime();
+                Object jfrEvent = RachioFlightRecorder.beginHttpRequest();
+                try {
+                    response = transport.execute(method, location, apikey, reqDatas, requestHeaders, contentReader);
+                    recordRequest(jfrEvent, method, endpoint, response, started);
+                    reported = true;
+                    if (response.responseCode < HTTP_INTERNAL_ERROR) {
+                        breaker.success();
+                        break;
+                    }
+                    breaker.failure();
+                    if (!retry) {
+                        break;
+                    }
+                    logger.debug("RachioHttp: {} {} failed with http code {}, retry", method, url,
+                            response.responseCode);
+                } catch (IOException e) {
+                    recordRequest(jfrEvent, method, endpoint, null, started);
+                    reported = true;
+                    breaker.failure();
+                    if (!retry) {
+                        throw e;
+                    }
+                    logger.debug("RachioHttp: {} {} failed: {}, retry", method, url, e.toString());
+                } finally {
+                    if (!reported) {
+                        // no outcome (e.g. RuntimeException of the content reader), don't block the trial
+                        breaker.release();
+                    }
+                }
+                Thread.sleep(getRetryDelay(attempt));
+            }
+
+            result.responseCode = response.responseCode;
+            if (response.getHeader(RACHIO_JSON_RATE_LIMIT) != null) {
+                result.setRateLimit(response.getHeader(RACHIO_JSON_RATE_LIMIT),
+                        response.getHeader(RACHIO_JSON_RATE_REMAINING), response.getHeader(RACHIO_JSON_RATE_RESET));
+                if (governor != null) {
+                    governor.update(result);
+                }
                 if (result.isRateLimitBlocked()) {
                     String message = MessageFormat.format("RachioHttp: Critcal API rate limit: {0} / {1}, reset at {2}",
                             result.rateRemaining, result.rateLimit, result.rateReset);
@@ -154,28 +304,93 @@ public class RachioHttp {
                 }
             }
 
+            if ((cached != null) && (result.responseCode == HTTP_NOT_MODIFIED)) {
+                logger.trace("RachioHttp: {} '{}' not modified, using cached data", method, location);
+                responseCache.revalidated(location, cached);
+                result.responseCode = cached.result.responseCode;
+                result.resultString = cached.result.resultString;
+                return result;
+            }
+
             if ((result.responseCode != HTTP_OK)
                     && ((result.responseCode != HTTP_NO_CONTENT) || (!result.requestMethod.equals(HTTP_METHOD_PUT)
                             && !result.requestMethod.equals(HTTP_METHOD_DELETE)))) {
                 String message = MessageFormat.format(
-                        "RachioHttp: Error sending HTTP {0} request to {2} - http response code={2}",
-                        request.getRequestMethod(), url, result.responseCode);
+                        "RachioHttp: Error sending HTTP {0} request to {1} - http response code={2}", method, url,
+                        result.responseCode);
                 throw new RachioApiException(message, result);
             }
 
-            String inputLine;
-            while ((inputLine = in.readLine()) != null) {
-                response.append(inputLine);
+            result.resultString = response.content;
+            logger.trace("RachioHttp: {} {} - Response='{}'", method, url, result.resultString);
+            if (cacheable) {
+                responseCache.put(apikey, location, result, response.getHeader(HTTP_HEADER_ETAG),
+                        response.getHeader(HTTP_HEADER_LAST_MODIFIED));
+            } else if (!method.equals(HTTP_METHOD_GET)) {
+                // state has changed, cached device/webhook data is outdated
+                responseCache.invalidate(apikey);
             }
-            in.close();
-
-            result.resultString = response.toString();
-            logger.trace("RachioHttp: {} {} - Response='{}'", request.getRequestMethod(), url, result.resultString);
 
             return result;
+        } catch (RachioApiException e) {
+            throw e;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RachioApiException(e.toString(), result, e);
         } catch (Throwable e) {
             throw new RachioApiException(e.toString(), result, e);
         }
     }
 
+    /**
+     * Get the endpoint of a request. Host and device/zone ids are masked, so all devices share the endpoint's circuit
+     * breaker and metrics.
+     *
+     * @param url Request url (without parameters)
+     * @return endpoint path, e.g. /1/public/device/*
+     */
+    private static String getEndpoint(String url) {
+        String path = HOST_PATTERN.matcher(url).replaceFirst("");
+        return ID_PATTERN.matcher(path).replaceAll("/*");
+    }
+
+    /**
+     * Record a request in the metrics and as Flight Recorder event
+     *
+     * @param jfrEvent Handle from RachioFlightRecorder.beginHttpRequest()
+     * @param response Response, null if the request failed
+     * @param started System.nanoTime() when the request was sent
+     */
+    private static void recordRequest(Object jfrEvent, String method, String endpoint,
+            RachioTransportResponse response, long started) {
+        int status = response != null ? response.responseCode : 0;
+        RachioMetrics.recordApiCall(method, endpoint, status, System.nanoTime() - started);
+        if (jfrEvent != null) {
+            long bytes = 0;
+            int rateRemaining = -1;
+            if (response != null) {
+                try {
+                    String length = response.getHeader(HTTP_HEADER_CONTENT_LENGTH);
+                    bytes = length != null ? Long.parseLong(length) : response.content.length();
+                    String remaining = response.getHeader(RACHIO_JSON_RATE_REMAINING);
+                    rateRemaining = remaining != null ? Integer.parseInt(remaining) : -1;
+                } catch (NumberFormatException e) {
+                    // keep defaults
+                }
+            }
+            RachioFlightRecorder.commitHttpRequest(jfrEvent, method, endpoint, status, bytes, rateRemaining);
+        }
+    }
+
+    /**
+     * Exponential backoff with jitter, so multiple bridges don't retry in lockstep
+     *
+     * @param attempt Number of the failed attempt (0=first request)
+     * @return delay in ms
+     */
+    private static long getRetryDelay(int attempt) {
+        long delay = Math.min((long) RACHIO_HTTP_RETRY_DELAY << attempt, RACHIO_HTTP_RETRY_MAX_DELAY);
+        return delay / 2 + ThreadLocalRandom.current().nextLong(delay / 2 + 1);
+    }
+
 } // class
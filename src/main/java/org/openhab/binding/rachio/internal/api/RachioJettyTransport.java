@@ -0,0 +1,140 @@
+/**
+ * Copyright (c) 2010-2018 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.rachio.internal.api;
+
+import static org.openhab.binding.rachio.RachioBindingConstants.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.eclipse.jetty.client.HttpClient;
+import org.eclipse.jetty.client.api.Request;
+import org.eclipse.jetty.client.api.Response;
+import org.eclipse.jetty.client.util.InputStreamResponseListener;
+import org.eclipse.jetty.client.util.StringContentProvider;
+import org.eclipse.jetty.http.HttpField;
+import org.eclipse.jetty.http.HttpHeader;
+import org.eclipse.jetty.http.HttpStatus;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The {@link RachioJettyTransport} uses a pooled Jetty HttpClient (provided by the openHAB HttpClientFactory). The
+ * client keeps connections to api.rach.io alive between calls, so polling doesn't pay the TLS handshake each time.
+ * The number of connections per host is bounded and idle connections get evicted after HTTP_IDLE_TIMEOUT.
+ *
+ * @author Markus Michels (markus7017) - Initial contribution
+ */
+public class RachioJettyTransport implements RachioTransport {
+    private final Logger logger = LoggerFactory.getLogger(RachioJettyTransport.class);
+    private final HttpClient httpClient;
+
+    /**
+     * Configure and start the given (not yet started) http client.
+     *
+     * @param httpClient Client created by HttpClientFactory.createHttpClient()
+     * @throws Exception if the client can't be started
+     */
+    public RachioJettyTransport(HttpClient httpClient) throws Exception {
+        this.httpClient = httpClient;
+        httpClient.setMaxConnectionsPerDestination(HTTP_MAX_CONNECTIONS_PER_HOST);
+        httpClient.setIdleTimeout(HTTP_IDLE_TIMEOUT);
+        httpClient.setConnectTimeout(HTTP_TIMOUT);
+        httpClient.setFollowRedirects(false);
+        httpClient.setUserAgentField(new HttpField(HttpHeader.USER_AGENT, SERVLET_WEBHOOK_USER_AGENT));
+        if (!httpClient.isStarted()) {
+            httpClient.start();
+        }
+        logger.debug("RachioHttp: Pooled http client started (max {} connections/host, idle timeout {}ms)",
+                HTTP_MAX_CONNECTIONS_PER_HOST, HTTP_IDLE_TIMEOUT);
+    }
+
+    @Override
+    public RachioTransportResponse execute(String method, String url, String apikey, String data,
+            Map<String, String> requestHeaders, RachioContentReader contentReader) throws IOException {
+        Request request = httpClient.newRequest(url).method(method)
+                .timeout(HTTP_TIMOUT + HTTP_READ_TIMEOUT, TimeUnit.MILLISECONDS)
+                .idleTimeout(HTTP_READ_TIMEOUT, TimeUnit.MILLISECONDS)
+                .header(HttpHeader.CONTENT_TYPE, SERVLET_WEBHOOK_APPLICATION_JSON);
+        if ((apikey != null) && !apikey.isEmpty()) {
+            request.header(HttpHeader.AUTHORIZATION, "Bearer " + apikey);
+        }
+        if (requestHeaders != null) {
+            for (Map.Entry<String, String> header : requestHeaders.entrySet()) {
+                request.header(header.getKey(), header.getValue());
+            }
+        }
+        if ((data != null) && (method.equals(HTTP_METHOD_PUT) || method.equals(HTTP_METHOD_POST))) {
+            request.content(new StringContentProvider(data, SERVLET_WEBHOOK_CHARSET), SERVLET_WEBHOOK_APPLICATION_JSON);
+        }
+
+        try {
+            // the listener gives access to the body while it's received, no need to buffer large payloads
+            InputStreamResponseListener listener = new InputStreamResponseListener();
+            request.send(listener);
+            Response jettyResponse = listener.get(HTTP_TIMOUT + HTTP_READ_TIMEOUT, TimeUnit.MILLISECONDS);
+
+            RachioTransportResponse response = new RachioTransportResponse();
+            response.responseCode = jettyResponse.getStatus();
+            response.setHeader(RACHIO_JSON_RATE_LIMIT, jettyResponse.getHeaders().get(RACHIO_JSON_RATE_LIMIT));
+            response.setHeader(RACHIO_JSON_RATE_REMAINING, jettyResponse.getHeaders().get(RACHIO_JSON_RATE_REMAINING));
+            response.setHeader(RACHIO_JSON_RATE_RESET, jettyResponse.getHeaders().get(RACHIO_JSON_RATE_RESET));
+            response.setHeader(HTTP_HEADER_ETAG, jettyResponse.getHeaders().get(HttpHeader.ETAG));
+            response.setHeader(HTTP_HEADER_LAST_MODIFIED, jettyResponse.getHeaders().get(HttpHeader.LAST_MODIFIED));
+            response.setHeader(HTTP_HEADER_CONTENT_LENGTH, jettyResponse.getHeaders().get(HttpHeader.CONTENT_LENGTH));
+            try (InputStream in = listener.getInputStream()) {
+                if ((contentReader != null) && (response.responseCode == HttpStatus.OK_200)) {
+                    contentReader.read(in);
+                } else {
+                    response.content = readContent(in);
+                }
+            }
+            return response;
+        } catch (ExecutionException e) {
+            // unwrap to keep exception classes (e.g. UnknownHostException) visible to RachioApiException
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            throw new IOException(cause != null ? cause.toString() : e.toString(), cause);
+        } catch (TimeoutException e) {
+            throw new IOException("Timeout on " + method + " " + url, e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Request interrupted: " + method + " " + url, e);
+        }
+    }
+
+    private static String readContent(InputStream in) throws IOException {
+        ByteArrayOutputStream content = new ByteArrayOutputStream();
+        byte[] buffer = new byte[4096];
+        int n;
+        while ((n = in.read(buffer)) != -1) {
+            content.write(buffer, 0, n);
+        }
+        return new String(content.toByteArray(), StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public void dispose() {
+        try {
+            httpClient.stop();
+        } catch (Exception e) {
+            logger.debug("RachioHttp: Unable to stop http client: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,813 @@
+/**
+ * Copyright (c) 2010-2018 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.rachio.internal.api;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.openhab.binding.rachio.internal.api.RachioApi.RachioApiWebHookEntry;
+import org.openhab.binding.rachio.internal.api.RachioCloudDevice.RachioCloudNetworkSettings;
+import org.openhab.binding.rachio.internal.api.RachioEvent.RachioEventProperty;
+import org.openhab.binding.rachio.internal.api.RachioEvent.RachioZoneStatus;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonSyntaxException;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+/**
+ * The {@link RachioJsonCodec} provides the binding-wide Gson instance. The model classes used on the polling and
+ * webhook paths (devices, zones, events, webhook entries) are mapped by hand-written TypeAdapters, so there is no
+ * reflection when parsing those. Other classes fall back to the Gson reflective adapters, which are created once and
+ * cached by the shared instance.
+ *
+ * Unknown members are skipped and null values keep the field's default.
+ *
+ * @author Markus Michels (markus7017) - Initial contribution
+ */
+public class RachioJsonCodec {
+    private static final TypeAdapter<RachioCloudZone> zoneAdapter = new RachioCloudZoneAdapter().nullSafe();
+    private static final Gson gson = new GsonBuilder()
+            .registerTypeAdapter(RachioCloudDevice.class, new RachioCloudDeviceAdapter().nullSafe())
+            .registerTypeAdapter(RachioCloudZone.class, zoneAdapter)
+            .registerTypeAdapter(RachioEvent.class, new RachioEventAdapter().nullSafe())
+            .registerTypeAdapter(RachioApiWebHookEntry.class, new RachioWebHookEntryAdapter().nullSafe()).create();
+
+    private RachioJsonCodec() {
+        // static helpers only
+    }
+
+    public static Gson getGson() {
+        return gson;
+    }
+
+    public static <T> T fromJson(String json, Class<T> classOfT) throws JsonSyntaxException {
+        return gson.fromJson(json, classOfT);
+    }
+
+    public static <T> T fromJson(JsonReader reader, Class<T> classOfT) throws JsonSyntaxException {
+        return gson.fromJson(reader, classOfT);
+    }
+
+    public static String toJson(Object src) {
+        return gson.toJson(src);
+    }
+
+    /**
+     * Decode only the fields needed to route a webhook event: externalId, deviceId, type and subType plus id and
+     * sequence to detect duplicates and timestamp/eventDate to order the events of a device. All other values are
+     * skipped without creating objects.
+     *
+     * @param in Reader positioned on the event object
+     * @return event with the routing fields, null if the input is empty
+     */
+    public static RachioEvent readEventHeader(JsonReader in) throws JsonParseException {
+        try {
+            in.setLenient(true);
+            try {
+                in.peek();
+            } catch (EOFException e) {
+                return null; // empty body
+            }
+            RachioEvent event = new RachioEvent();
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "externalId":
+                        event.externalId = readString(in, event.externalId);
+                        break;
+                    case "deviceId":
+                        event.deviceId = readString(in, event.deviceId);
+                        break;
+                    case "type":
+                        event.type = readString(in, event.type);
+                        break;
+                    case "subType":
+                        event.subType = readString(in, event.subType);
+                        break;
+                    case "id":
+                        event.id = readString(in, event.id);
+                        break;
+                    case "sequence":
+                        event.sequence = readInt(in, event.sequence);
+                        break;
+                    case "timestamp":
+                        event.timestamp = readString(in, event.timestamp);
+                        break;
+                    case "eventDate":
+                        event.eventDate = readLong(in, event.eventDate);
+                        break;
+                    default:
+                        in.skipValue();
+                }
+            }
+            in.endObject();
+            return event;
+        } catch (IOException | IllegalStateException | NumberFormatException e) {
+            throw new JsonSyntaxException(e);
+        }
+    }
+
+    /**
+     * Decode the full event into the given object (see readEventHeader()). Fields not included in the JSON keep their
+     * value.
+     *
+     * @param json Event JSON
+     * @param event Event to fill
+     */
+    public static void readEvent(String json, RachioEvent event) throws JsonParseException {
+        try {
+            JsonReader in = new JsonReader(new StringReader(json));
+            in.setLenient(true);
+            RachioEventAdapter.readEvent(in, event);
+        } catch (IOException | IllegalStateException | NumberFormatException e) {
+            throw new JsonSyntaxException(e);
+        }
+    }
+
+    private static class RachioCloudDeviceAdapter extends TypeAdapter<RachioCloudDevice> {
+        @Override
+        public RachioCloudDevice read(JsonReader in) throws IOException {
+            RachioCloudDevice device = new RachioCloudDevice();
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "createDate":
+                        device.createDate = readLong(in, device.createDate);
+                        break;
+                    case "id":
+                        device.id = readString(in, device.id);
+                        break;
+                    case "status":
+                        device.status = readString(in, device.status);
+                        break;
+                    case "zones":
+                        if (in.peek() == JsonToken.BEGIN_ARRAY) {
+                            in.beginArray();
+                            while (in.hasNext()) {
+                                RachioCloudZone zone = zoneAdapter.read(in);
+                                if (zone != null) {
+                                    device.zones.add(zone);
+                                }
+                            }
+                            in.endArray();
+                        } else {
+                            in.skipValue();
+                        }
+                        break;
+                    case "latitude":
+                        device.latitude = readDouble(in, device.latitude);
+                        break;
+                    case "longitude":
+                        device.longitude = readDouble(in, device.longitude);
+                        break;
+                    case "name":
+                        device.name = readString(in, device.name);
+                        break;
+                    case "cycleSoak":
+                        device.cycleSoak = readBoolean(in, device.cycleSoak);
+                        break;
+                    case "serialNumber":
+                        device.serialNumber = readString(in, device.serialNumber);
+                        break;
+                    case "rainDelayExpirationDate":
+                        device.rainDelayExpirationDate = readLong(in, device.rainDelayExpirationDate);
+                        break;
+                    case "macAddress":
+                        device.macAddress = readString(in, device.macAddress);
+                        break;
+                    case "on":
+                        device.on = readBoolean(in, device.on);
+                        break;
+                    case "model":
+                        device.model = readString(in, device.model);
+                        break;
+                    case "scheduleModeType":
+                        device.scheduleModeType = readString(in, device.scheduleModeType);
+                        break;
+                    case "deleted":
+                        device.deleted = readBoolean(in, device.deleted);
+                        break;
+                    case "homeKitCompatible":
+                        device.homeKitCompatible = readBoolean(in, device.homeKitCompatible);
+                        break;
+                    default:
+                        // scheduleRules/flexScheduleRules are not used by the binding
+                        in.skipValue();
+                }
+            }
+            in.endObject();
+            return device;
+        }
+
+        @Override
+        public void write(JsonWriter out, RachioCloudDevice device) throws IOException {
+            out.beginObject();
+            out.name("createDate").value(device.createDate);
+            out.name("id").value(device.id);
+            out.name("status").value(device.status);
+            out.name("zones").beginArray();
+            for (RachioCloudZone zone : device.zones) {
+                zoneAdapter.write(out, zone);
+            }
+            out.endArray();
+            out.name("latitude").value(device.latitude);
+            out.name("longitude").value(device.longitude);
+            out.name("name").value(device.name);
+            out.name("cycleSoak").value(device.cycleSoak);
+            out.name("serialNumber").value(device.serialNumber);
+            out.name("rainDelayExpirationDate").value(device.rainDelayExpirationDate);
+            out.name("macAddress").value(device.macAddress);
+            out.name("on").value(device.on);
+            out.name("model").value(device.model);
+            out.name("scheduleModeType").value(device.scheduleModeType);
+            out.name("deleted").value(device.deleted);
+            out.name("homeKitCompatible").value(device.homeKitCompatible);
+            out.endObject();
+        }
+    } // class RachioCloudDeviceAdapter
+
+    private static class RachioCloudZoneAdapter extends TypeAdapter<RachioCloudZone> {
+        @Override
+        public RachioCloudZone read(JsonReader in) throws IOException {
+            RachioCloudZone zone = new RachioCloudZone();
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "id":
+                        zone.id = readString(in, zone.id);
+                        break;
+                    case "zoneNumber":
+                        zone.zoneNumber = readInt(in, zone.zoneNumber);
+                        break;
+                    case "name":
+                        zone.name = readString(in, zone.name);
+                        break;
+                    case "enabled":
+                        zone.enabled = readBoolean(in, zone.enabled);
+                        break;
+                    case "availableWater":
+                        zone.availableWater = readDouble(in, zone.availableWater);
+                        break;
+                    case "rootZoneDepth":
+                        zone.rootZoneDepth = readDouble(in, zone.rootZoneDepth);
+                        break;
+                    case "managementAllowedDepletion":
+                        zone.managementAllowedDepletion = readDouble(in, zone.managementAllowedDepletion);
+                        break;
+                    case "efficiency":
+                        zone.efficiency = readDouble(in, zone.efficiency);
+                        break;
+                    case "yardAreaSquareFeet":
+                        zone.yardAreaSquareFeet = readInt(in, zone.yardAreaSquareFeet);
+                        break;
+                    case "imageUrl":
+                        zone.imageUrl = readString(in, zone.imageUrl);
+                        break;
+                    case "lastWateredDate":
+                        zone.lastWateredDate = readLong(in, zone.lastWateredDate);
+                        break;
+                    case "scheduleDataModified":
+                        zone.scheduleDataModified = readBoolean(in, zone.scheduleDataModified);
+                        break;
+                    case "fixedRuntime":
+                        zone.fixedRuntime = readInt(in, zone.fixedRuntime);
+                        break;
+                    case "saturatedDepthOfWater":
+                        zone.saturatedDepthOfWater = readDouble(in, zone.saturatedDepthOfWater);
+                        break;
+                    case "depthOfWater":
+                        zone.depthOfWater = readDouble(in, zone.depthOfWater);
+                        break;
+                    case "maxRuntime":
+                        zone.maxRuntime = readInt(in, zone.maxRuntime);
+                        break;
+                    case "runtimeNoMultiplier":
+                        zone.runtimeNoMultiplier = readInt(in, zone.runtimeNoMultiplier);
+                        break;
+                    case "runtime":
+                        zone.runtime = readInt(in, zone.runtime);
+                        break;
+                    default:
+                        in.skipValue();
+                }
+            }
+            in.endObject();
+            return zone;
+        }
+
+        @Override
+        public void write(JsonWriter out, RachioCloudZone zone) throws IOException {
+            out.beginObject();
+            out.name("id").value(zone.id);
+            out.name("zoneNumber").value(zone.zoneNumber);
+            out.name("name").value(zone.name);
+            out.name("enabled").value(zone.enabled);
+            out.name("availableWater").value(zone.availableWater);
+            out.name("rootZoneDepth").value(zone.rootZoneDepth);
+            out.name("managementAllowedDepletion").value(zone.managementAllowedDepletion);
+            out.name("efficiency").value(zone.efficiency);
+            out.name("yardAreaSquareFeet").value(zone.yardAreaSquareFeet);
+            out.name("imageUrl").value(zone.imageUrl);
+            out.name("lastWateredDate").value(zone.lastWateredDate);
+            out.name("scheduleDataModified").value(zone.scheduleDataModified);
+            out.name("fixedRuntime").value(zone.fixedRuntime);
+            out.name("saturatedDepthOfWater").value(zone.saturatedDepthOfWater);
+            out.name("depthOfWater").value(zone.depthOfWater);
+            out.name("maxRuntime").value(zone.maxRuntime);
+            out.name("runtimeNoMultiplier").value(zone.runtimeNoMultiplier);
+            out.name("runtime").value(zone.runtime);
+            out.endObject();
+        }
+    } // class RachioCloudZoneAdapter
+
+    private static class RachioEventAdapter extends TypeAdapter<RachioEvent> {
+        @Override
+        public RachioEvent read(JsonReader in) throws IOException {
+            return readEvent(in, new RachioEvent());
+        }
+
+        private static RachioEvent readEvent(JsonReader in, RachioEvent event) throws IOException {
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "externalId":
+                        event.externalId = readString(in, event.externalId);
+                        break;
+                    case "routingId":
+                        event.routingId = readString(in, event.routingId);
+                        break;
+                    case "connectId":
+                        event.connectId = readString(in, event.connectId);
+                        break;
+                    case "correlationId":
+                        event.correlationId = readString(in, event.correlationId);
+                        break;
+                    case "scheduleId":
+                        event.scheduleId = readString(in, event.scheduleId);
+                        break;
+                    case "deviceId":
+                        event.deviceId = readString(in, event.deviceId);
+                        break;
+                    case "zoneId":
+                        event.zoneId = readString(in, event.zoneId);
+                        break;
+                    case "id":
+                        event.id = readString(in, event.id);
+                        break;
+                    case "timeZone":
+                        event.timeZone = readString(in, event.timeZone);
+                        break;
+                    case "timestamp":
+                        event.timestamp = readString(in, event.timestamp);
+                        break;
+                    case "timeForSummary":
+                        event.timeForSummary = readString(in, event.timeForSummary);
+                        break;
+                    case "startTime":
+                        event.startTime = readString(in, event.startTime);
+                        break;
+                    case "endTime":
+                        event.endTime = readString(in, event.endTime);
+                        break;
+                    case "eventDate":
+                        event.eventDate = readLong(in, event.eventDate);
+                        break;
+                    case "createDate":
+                        event.createDate = readLong(in, event.createDate);
+                        break;
+                    case "lastUpdateDate":
+                        event.lastUpdateDate = readLong(in, event.lastUpdateDate);
+                        break;
+                    case "sequence":
+                        event.sequence = readInt(in, event.sequence);
+                        break;
+                    case "status":
+                        event.status = readString(in, event.status);
+                        break;
+                    case "type":
+                        event.type = readString(in, event.type);
+                        break;
+                    case "subType":
+                        event.subType = readString(in, event.subType);
+                        break;
+                    case "eventType":
+                        event.eventType = readString(in, event.eventType);
+                        break;
+                    case "category":
+                        event.category = readString(in, event.category);
+                        break;
+                    case "topic":
+                        event.topic = readString(in, event.topic);
+                        break;
+                    case "action":
+                        event.action = readString(in, event.action);
+                        break;
+                    case "summary":
+                        event.summary = readString(in, event.summary);
+                        break;
+                    case "description":
+                        event.description = readString(in, event.description);
+                        break;
+                    case "title":
+                        event.title = readString(in, event.title);
+                        break;
+                    case "pushTitle":
+                        event.pushTitle = readString(in, event.pushTitle);
+                        break;
+                    case "icon":
+                        event.icon = readString(in, event.icon);
+                        break;
+                    case "iconUrl":
+                        event.iconUrl = readString(in, event.iconUrl);
+                        break;
+                    case "zoneNumber":
+                        event.zoneNumber = readInt(in, event.zoneNumber);
+                        break;
+                    case "zoneName":
+                        event.zoneName = readString(in, event.zoneName);
+                        break;
+                    case "zoneCurrent":
+                        event.zoneCurrent = readInt(in, event.zoneCurrent);
+                        break;
+                    case "zoneRunState":
+                        event.zoneRunState = readString(in, event.zoneRunState);
+                        break;
+                    case "duration":
+                        event.duration = readInt(in, event.duration);
+                        break;
+                    case "durationInMinutes":
+                        event.durationInMinutes = readInt(in, event.durationInMinutes);
+                        break;
+                    case "flowVolume":
+                        event.flowVolume = readInt(in, event.flowVolume);
+                        break;
+                    case "zoneRunStatus":
+                        event.zoneRunStatus = readZoneStatus(in);
+                        break;
+                    case "scheduleName":
+                        event.scheduleName = readString(in, event.scheduleName);
+                        break;
+                    case "scheduleType":
+                        event.scheduleType = readString(in, event.scheduleType);
+                        break;
+                    case "deviceName":
+                        event.deviceName = readString(in, event.deviceName);
+                        break;
+                    case "network":
+                        event.network = readNetwork(in);
+                        break;
+                    case "pin":
+                        event.pin = readString(in, event.pin);
+                        break;
+                    case "eventParms":
+                        event.eventParms = readEventParms(in);
+                        break;
+                    case "deltaProperties":
+                        event.deltaProperties = readDeltaProperties(in);
+                        break;
+                    default:
+                        in.skipValue();
+                }
+            }
+            in.endObject();
+            return event;
+        }
+
+        private static RachioZoneStatus readZoneStatus(JsonReader in) throws IOException {
+            if (in.peek() != JsonToken.BEGIN_OBJECT) {
+                in.skipValue();
+                return null;
+            }
+            RachioZoneStatus status = new RachioZoneStatus();
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "duration":
+                        status.duration = readInt(in, status.duration);
+                        break;
+                    case "scheduleType":
+                        status.scheduleType = readString(in, status.scheduleType);
+                        break;
+                    case "zoneNumber":
+                        status.zoneNumber = readInt(in, status.zoneNumber);
+                        break;
+                    case "executionType":
+                        status.executionType = readString(in, status.executionType);
+                        break;
+                    case "state":
+                        status.state = readString(in, status.state);
+                        break;
+                    case "startTime":
+                        status.startTime = readString(in, status.startTime);
+                        break;
+                    case "endTime":
+                        status.endTime = readString(in, status.endTime);
+                        break;
+                    default:
+                        in.skipValue();
+                }
+            }
+            in.endObject();
+            return status;
+        }
+
+        private static RachioCloudNetworkSettings readNetwork(JsonReader in) throws IOException {
+            if (in.peek() != JsonToken.BEGIN_OBJECT) {
+                in.skipValue();
+                return null;
+            }
+            RachioCloudNetworkSettings network = new RachioCloudNetworkSettings();
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "gw":
+                        network.gw = readString(in, network.gw);
+                        break;
+                    case "rssi":
+                        network.rssi = readString(in, network.rssi);
+                        break;
+                    case "dns2":
+                        network.dns2 = readString(in, network.dns2);
+                        break;
+                    case "dns1":
+                        network.dns1 = readString(in, network.dns1);
+                        break;
+                    case "ip":
+                        network.ip = readString(in, network.ip);
+                        break;
+                    case "nm":
+                        network.nm = readString(in, network.nm);
+                        break;
+                    default:
+                        in.skipValue();
+                }
+            }
+            in.endObject();
+            return network;
+        }
+
+        private static HashMap<String, String> readEventParms(JsonReader in) throws IOException {
+            if (in.peek() != JsonToken.BEGIN_OBJECT) {
+                in.skipValue();
+                return null;
+            }
+            HashMap<String, String> parms = new HashMap<>();
+            in.beginObject();
+            while (in.hasNext()) {
+                parms.put(in.nextName(), readString(in, null));
+            }
+            in.endObject();
+            return parms;
+        }
+
+        private static HashMap<String, RachioEventProperty> readDeltaProperties(JsonReader in) throws IOException {
+            if (in.peek() != JsonToken.BEGIN_OBJECT) {
+                in.skipValue();
+                return null;
+            }
+            HashMap<String, RachioEventProperty> properties = new HashMap<>();
+            in.beginObject();
+            while (in.hasNext()) {
+                String key = in.nextName();
+                if (in.peek() != JsonToken.BEGIN_OBJECT) {
+                    in.skipValue();
+                    continue;
+                }
+                RachioEventProperty property = new RachioEventProperty();
+                in.beginObject();
+                while (in.hasNext()) {
+                    switch (in.nextName()) {
+                        case "propertyName":
+                            property.propertyName = readString(in, null);
+                            break;
+                        case "oldValue":
+                            property.oldValue = readString(in, null);
+                            break;
+                        case "newValue":
+                            property.newValue = readString(in, null);
+                            break;
+                        default:
+                            in.skipValue();
+                    }
+                }
+                in.endObject();
+                properties.put(key, property);
+            }
+            in.endObject();
+            return properties;
+        }
+
+        @Override
+        public void write(JsonWriter out, RachioEvent event) throws IOException {
+            out.beginObject();
+            out.name("externalId").value(event.externalId);
+            out.name("routingId").value(event.routingId);
+            out.name("connectId").value(event.connectId);
+            out.name("correlationId").value(event.correlationId);
+            out.name("scheduleId").value(event.scheduleId);
+            out.name("deviceId").value(event.deviceId);
+            out.name("zoneId").value(event.zoneId);
+            out.name("id").value(event.id);
+            out.name("timeZone").value(event.timeZone);
+            out.name("timestamp").value(event.timestamp);
+            out.name("timeForSummary").value(event.timeForSummary);
+            out.name("startTime").value(event.startTime);
+            out.name("endTime").value(event.endTime);
+            out.name("eventDate").value(event.eventDate);
+            out.name("createDate").value(event.createDate);
+            out.name("lastUpdateDate").value(event.lastUpdateDate);
+            out.name("sequence").value(event.sequence);
+            out.name("status").value(event.status);
+            out.name("type").value(event.type);
+            out.name("subType").value(event.subType);
+            out.name("eventType").value(event.eventType);
+            out.name("category").value(event.category);
+            out.name("topic").value(event.topic);
+            out.name("action").value(event.action);
+            out.name("summary").value(event.summary);
+            out.name("description").value(event.description);
+            out.name("title").value(event.title);
+            out.name("pushTitle").value(event.pushTitle);
+            out.name("icon").value(event.icon);
+            out.name("iconUrl").value(event.iconUrl);
+            out.name("zoneNumber").value(event.zoneNumber);
+            out.name("zoneName").value(event.zoneName);
+            out.name("zoneCurrent").value(event.zoneCurrent);
+            out.name("zoneRunState").value(event.zoneRunState);
+            out.name("duration").value(event.duration);
+            out.name("durationInMinutes").value(event.durationInMinutes);
+            out.name("flowVolume").value(event.flowVolume);
+            if (event.zoneRunStatus != null) {
+                RachioZoneStatus status = event.zoneRunStatus;
+                out.name("zoneRunStatus").beginObject();
+                out.name("duration").value(status.duration);
+                out.name("scheduleType").value(status.scheduleType);
+                out.name("zoneNumber").value(status.zoneNumber);
+                out.name("executionType").value(status.executionType);
+                out.name("state").value(status.state);
+                out.name("startTime").value(status.startTime);
+                out.name("endTime").value(status.endTime);
+                out.endObject();
+            }
+            out.name("scheduleName").value(event.scheduleName);
+            out.name("scheduleType").value(event.scheduleType);
+            out.name("deviceName").value(event.deviceName);
+            if (event.network != null) {
+                RachioCloudNetworkSettings network = event.network;
+                out.name("network").beginObject();
+                out.name("gw").value(network.gw);
+                out.name("rssi").value(network.rssi);
+                out.name("dns2").value(network.dns2);
+                out.name("dns1").value(network.dns1);
+                out.name("ip").value(network.ip);
+                out.name("nm").value(network.nm);
+                out.endObject();
+            }
+            out.name("pin").value(event.pin);
+            if (event.eventParms != null) {
+                out.name("eventParms").beginObject();
+                for (Map.Entry<String, String> parm : event.eventParms.entrySet()) {
+                    out.name(parm.getKey()).value(parm.getValue());
+                }
+                out.endObject();
+            }
+            if (event.deltaProperties != null) {
+                out.name("deltaProperties").beginObject();
+                for (Map.Entry<String, RachioEventProperty> property : event.deltaProperties.entrySet()) {
+                    out.name(property.getKey()).beginObject();
+                    out.name("propertyName").value(property.getValue().propertyName);
+                    out.name("oldValue").value(property.getValue().oldValue);
+                    out.name("newValue").value(property.getValue().newValue);
+                    out.endObject();
+                }
+                out.endObject();
+            }
+            out.endObject();
+        }
+    } // class RachioEventAdapter
+
+    private static class RachioWebHookEntryAdapter extends TypeAdapter<RachioApiWebHookEntry> {
+        @Override
+        public RachioApiWebHookEntry read(JsonReader in) throws IOException {
+            RachioApiWebHookEntry entry = new RachioApiWebHookEntry();
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "createDate":
+                        entry.createDate = readLong(in, entry.createDate);
+                        break;
+                    case "lastUpdateDate":
+                        entry.lastUpdateDate = readLong(in, entry.lastUpdateDate);
+                        break;
+                    case "id":
+                        entry.id = readString(in, entry.id);
+                        break;
+                    case "url":
+                        entry.url = readString(in, entry.url);
+                        break;
+                    case "externalId":
+                        entry.externalId = readString(in, entry.externalId);
+                        break;
+                    default:
+                        in.skipValue();
+                }
+            }
+            in.endObject();
+            return entry;
+        }
+
+        @Override
+        public void write(JsonWriter out, RachioApiWebHookEntry entry) throws IOException {
+            out.beginObject();
+            out.name("createDate").value(entry.createDate);
+            out.name("lastUpdateDate").value(entry.lastUpdateDate);
+            out.name("id").value(entry.id);
+            out.name("url").value(entry.url);
+            out.name("externalId").value(entry.externalId);
+            out.endObject();
+        }
+    } // class RachioWebHookEntryAdapter
+
+    // Value helpers: same coercion as the Gson default adapters (e.g. numbers into String fields), null keeps the
+    // default value
+
+    private static String readString(JsonReader in, String defaultValue) throws IOException {
+        switch (in.peek()) {
+            case NULL:
+                in.nextNull();
+                return defaultValue;
+            case BOOLEAN:
+                return Boolean.toString(in.nextBoolean());
+            case BEGIN_OBJECT:
+            case BEGIN_ARRAY:
+                in.skipValue();
+                return defaultValue;
+            default:
+                return in.nextString();
+        }
+    }
+
+    private static int readInt(JsonReader in, int defaultValue) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return defaultValue;
+        }
+        try {
+            return in.nextInt();
+        } catch (NumberFormatException e) {
+            throw new JsonSyntaxException(e);
+        }
+    }
+
+    private static long readLong(JsonReader in, long defaultValue) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return defaultValue;
+        }
+        try {
+            return in.nextLong();
+        } catch (NumberFormatException e) {
+            throw new JsonSyntaxException(e);
+        }
+    }
+
+    private static double readDouble(JsonReader in, double defaultValue) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return defaultValue;
+        }
+        try {
+            return in.nextDouble();
+        } catch (NumberFormatException e) {
+            throw new JsonSyntaxException(e);
+        }
+    }
+
+    private static boolean readBoolean(JsonReader in, boolean defaultValue) throws IOException {
+        switch (in.peek()) {
+            case NULL:
+                in.nextNull();
+                return defaultValue;
+            case STRING:
+                return Boolean.parseBoolean(in.nextString());
+            default:
+                return in.nextBoolean();
+        }
+    }
+}
@@ -0,0 +1,372 @@
+/**
+ * Copyright (c) 2010-2018 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.rachio.internal.api;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.openhab.binding.rachio.internal.api.RachioApi.RachioApiResult;
+
+/**
+ * The {@link RachioMetrics} collects binding-wide metrics: cloud api calls per endpoint, rate limit, poll duration,
+ * command queue and webhook processing. The values are exposed in Prometheus text format (see RachioMetricsServlet) and
+ * as bridge channels. Recording a value is lock-free, so it can be used on the request path.
+ *
+ * @author Markus Michels (markus7017) - Initial contribution
+ */
+public class RachioMetrics {
+    public static final String EVENT_RECEIVED = "received";
+    public static final String EVENT_REJECTED = "rejected";
+    public static final String EVENT_ROUTED = "routed";
+    public static final String EVENT_DROPPED = "dropped"; // event queue overflow
+    public static final String EVENT_DUPLICATE = "duplicate"; // redelivered by the cloud
+
+    // upper bounds in seconds, the last bucket is +Inf
+    private static final double[] LATENCY_BUCKETS = { 0.005, 0.01, 0.025, 0.05, 0.1, 0.25, 0.5, 1, 2.5, 5, 10 };
+
+    private static class RachioHistogram {
+        private final AtomicLongArray buckets = new AtomicLongArray(LATENCY_BUCKETS.length + 1);
+        private final LongAdder sumNanos = new LongAdder();
+
+        private void observe(long nanos) {
+            double seconds = nanos / 1e9;
+            int i = 0;
+            while ((i < LATENCY_BUCKETS.length) && (seconds > LATENCY_BUCKETS[i])) {
+                i++;
+            }
+            buckets.incrementAndGet(i);
+            sumNanos.add(nanos);
+        }
+
+        private void write(StringBuilder out, String name, String labels) {
+            String prefix = labels.isEmpty() ? "" : labels + ",";
+            long count = 0;
+            for (int i = 0; i < buckets.length(); i++) {
+                count += buckets.get(i);
+                String le = i < LATENCY_BUCKETS.length ? Double.toString(LATENCY_BUCKETS[i]) : "+Inf";
+                out.append(name).append("_bucket{").append(prefix).append("le=\"").append(le).append("\"} ")
+                        .append(count).append('\n');
+            }
+            writeSample(out, name + "_sum", labels, Double.toString(sumNanos.sum() / 1e9));
+            writeSample(out, name + "_count", labels, Long.toString(count));
+        }
+    }
+
+    private static class RachioRateLimit {
+        private volatile int limit;
+        private volatile int remaining;
+        private volatile long secondsToReset;
+    }
+
+    private static class RachioQueueState {
+        private volatile int depth;
+        private volatile int maxDepth;
+        private volatile int capacity;
+    }
+
+    private static class RachioCommandQueueState {
+        private volatile int depth;
+        private volatile long lastWaitTime;
+        private volatile long maxWaitTime;
+    }
+
+    private static final Map<String, LongAdder> apiRequests = new ConcurrentHashMap<>();
+    private static final Map<String, RachioHistogram> apiLatency = new ConcurrentHashMap<>();
+    private static final Map<String, RachioRateLimit> rateLimits = new ConcurrentHashMap<>();
+    private static final Map<String, RachioHistogram> pollDuration = new ConcurrentHashMap<>();
+    private static final Map<String, Long> lastPollDuration = new ConcurrentHashMap<>();
+    private static final Map<String, LongAdder> webhookEvents = new ConcurrentHashMap<>();
+    private static final Map<String, RachioQueueState> eventQueues = new ConcurrentHashMap<>();
+    private static final Map<String, RachioCommandQueueState> commandQueues = new ConcurrentHashMap<>();
+    private static final RachioHistogram dispatchLatency = new RachioHistogram();
+    private static final LongAdder apiCallsTotal = new LongAdder();
+    private static final LongAdder eventsRouted = new LongAdder();
+    private static final LongAdder dedupHits = new LongAdder();
+    private static final LongAdder dedupMisses = new LongAdder();
+    private static final LongAdder eventsReordered = new LongAdder();
+    private static final LongAdder eventsLate = new LongAdder();
+
+    /**
+     * Record a request sent to the cloud api
+     *
+     * @param method Http method
+     * @param endpoint Request path with device/zone ids masked
+     * @param responseCode Http code, 0=request failed (no response)
+     * @param nanos Duration of the request
+     */
+    public static void recordApiCall(String method, String endpoint, int responseCode, long nanos) {
+        String code = responseCode > 0 ? Integer.toString(responseCode) : "error";
+        String labels = label("method", method) + "," + label("endpoint", endpoint) + "," + label("code", code);
+        apiRequests.computeIfAbsent(labels, l -> new LongAdder()).increment();
+        apiLatency.computeIfAbsent(label("method", method) + "," + label("endpoint", endpoint),
+                l -> new RachioHistogram()).observe(nanos);
+        apiCallsTotal.increment();
+    }
+
+    /**
+     * Record the rate limit state of a bridge
+     *
+     * @param bridgeId Bridge thing id
+     * @param result Last api result of the bridge
+     */
+    public static void recordRateLimit(String bridgeId, RachioApiResult result) {
+        if ((result == null) || (result.rateLimit == 0)) {
+            return;
+        }
+        RachioRateLimit rateLimit = rateLimits.computeIfAbsent(bridgeId, id -> new RachioRateLimit());
+        rateLimit.limit = result.rateLimit;
+        rateLimit.remaining = result.rateRemaining;
+        rateLimit.secondsToReset = RachioPollScheduler.getSecondsToReset(result.rateReset,
+                System.currentTimeMillis());
+    }
+
+    /**
+     * Record the duration of a poll cycle
+     *
+     * @param bridgeId Bridge thing id
+     * @param nanos Duration of the poll cycle
+     */
+    public static void recordPoll(String bridgeId, long nanos) {
+        pollDuration.computeIfAbsent(bridgeId, id -> new RachioHistogram()).observe(nanos);
+        lastPollDuration.put(bridgeId, nanos / 1000000);
+    }
+
+    /**
+     * Count an inbound webhook event
+     *
+     * @param type Event type (e.g. ZONE_STATUS)
+     * @param result EVENT_RECEIVED, EVENT_REJECTED, EVENT_ROUTED, EVENT_DROPPED or EVENT_DUPLICATE
+     */
+    public static void recordEvent(String type, String result) {
+        String eventType = (type == null) || type.isEmpty() ? "unknown" : type;
+        webhookEvents.computeIfAbsent(label("type", eventType) + "," + label("result", result), l -> new LongAdder())
+                .increment();
+        if (result.equals(EVENT_ROUTED)) {
+            eventsRouted.increment();
+        }
+    }
+
+    /**
+     * Record a lookup in the event dedup cache
+     *
+     * @param hit true: event was a duplicate
+     */
+    public static void recordDedup(boolean hit) {
+        if (hit) {
+            dedupHits.increment();
+        } else {
+            dedupMisses.increment();
+        }
+    }
+
+    /**
+     * Record an event, which was processed in a different order than it arrived
+     *
+     * @param late true: event arrived after a newer event of the device was processed, false: event was put in order
+     */
+    public static void recordReorder(boolean late) {
+        if (late) {
+            eventsLate.increment();
+        } else {
+            eventsReordered.increment();
+        }
+    }
+
+    /**
+     * Record the state of a bridge's event queue
+     *
+     * @param bridgeId Bridge thing id
+     * @param depth Number of queued events
+     * @param capacity Max number of queued events
+     */
+    public static void recordEventQueue(String bridgeId, int depth, int capacity) {
+        RachioQueueState queue = eventQueues.computeIfAbsent(bridgeId, id -> new RachioQueueState());
+        queue.depth = depth;
+        queue.maxDepth = Math.max(queue.maxDepth, depth);
+        queue.capacity = capacity;
+    }
+
+    /**
+     * Record the state of a bridge's command queue
+     *
+     * @param bridgeId Bridge thing id
+     * @param queue Command queue of the bridge
+     */
+    public static void recordCommandQueue(String bridgeId, RachioCommandQueue queue) {
+        RachioCommandQueueState state = commandQueues.computeIfAbsent(bridgeId, id -> new RachioCommandQueueState());
+        state.depth = queue.getQueueDepth();
+        state.lastWaitTime = queue.getLastWaitTime();
+        state.maxWaitTime = queue.getMaxWaitTime();
+    }
+
+    /**
+     * Record the time from receiving the webhook request until the thing handler has updated the channels
+     *
+     * @param receivedNanos System.nanoTime() when the servlet received the request
+     */
+    public static void recordDispatch(long receivedNanos) {
+        if (receivedNanos > 0) {
+            dispatchLatency.observe(System.nanoTime() - receivedNanos);
+        }
+    }
+
+    /**
+     * Remove the gauges of a bridge, which was disposed
+     *
+     * @param bridgeId Bridge thing id
+     */
+    public static void removeBridge(String bridgeId) {
+        rateLimits.remove(bridgeId);
+        pollDuration.remove(bridgeId);
+        lastPollDuration.remove(bridgeId);
+        eventQueues.remove(bridgeId);
+        commandQueues.remove(bridgeId);
+    }
+
+    public static long getApiCalls() {
+        return apiCallsTotal.sum();
+    }
+
+    public static long getEventsRouted() {
+        return eventsRouted.sum();
+    }
+
+    /**
+     * @return duration of the last poll cycle in ms, -1 if the bridge didn't poll yet
+     */
+    public static long getLastPollDuration(String bridgeId) {
+        Long duration = lastPollDuration.get(bridgeId);
+        return duration != null ? duration : -1;
+    }
+
+    /**
+     * @return remaining api calls of the bridge, -1 if not known yet
+     */
+    public static int getRateRemaining(String bridgeId) {
+        RachioRateLimit rateLimit = rateLimits.get(bridgeId);
+        return rateLimit != null ? rateLimit.remaining : -1;
+    }
+
+    /**
+     * Format all metrics in the Prometheus text exposition format (version 0.0.4)
+     *
+     * @return metrics text
+     */
+    public static String toPrometheusText() {
+        StringBuilder out = new StringBuilder(4096);
+
+        writeHeader(out, "rachio_api_requests_total", "counter", "Requests sent to the Rachio cloud api");
+        for (Map.Entry<String, LongAdder> e : new TreeMap<>(apiRequests).entrySet()) {
+            writeSample(out, "rachio_api_requests_total", e.getKey(), Long.toString(e.getValue().sum()));
+        }
+        writeHeader(out, "rachio_api_request_duration_seconds", "histogram", "Latency of the cloud api requests");
+        for (Map.Entry<String, RachioHistogram> e : new TreeMap<>(apiLatency).entrySet()) {
+            e.getValue().write(out, "rachio_api_request_duration_seconds", e.getKey());
+        }
+
+        Map<String, RachioRateLimit> limits = new TreeMap<>(rateLimits);
+        writeHeader(out, "rachio_api_rate_limit", "gauge", "Daily api call limit");
+        for (Map.Entry<String, RachioRateLimit> e : limits.entrySet()) {
+            writeSample(out, "rachio_api_rate_limit", label("bridge", e.getKey()),
+                    Integer.toString(e.getValue().limit));
+        }
+        writeHeader(out, "rachio_api_rate_limit_remaining", "gauge", "Remaining api calls");
+        for (Map.Entry<String, RachioRateLimit> e : limits.entrySet()) {
+            writeSample(out, "rachio_api_rate_limit_remaining", label("bridge", e.getKey()),
+                    Integer.toString(e.getValue().remaining));
+        }
+        writeHeader(out, "rachio_api_rate_limit_reset_seconds", "gauge", "Seconds until the rate limit gets reset");
+        for (Map.Entry<String, RachioRateLimit> e : limits.entrySet()) {
+            writeSample(out, "rachio_api_rate_limit_reset_seconds", label("bridge", e.getKey()),
+                    Long.toString(e.getValue().secondsToReset));
+        }
+
+        writeHeader(out, "rachio_poll_duration_seconds", "histogram", "Duration of the poll cycles");
+        for (Map.Entry<String, RachioHistogram> e : new TreeMap<>(pollDuration).entrySet()) {
+            e.getValue().write(out, "rachio_poll_duration_seconds", label("bridge", e.getKey()));
+        }
+
+        writeHeader(out, "rachio_webhook_events_total", "counter", "Webhook events received, rejected and routed");
+        for (Map.Entry<String, LongAdder> e : new TreeMap<>(webhookEvents).entrySet()) {
+            writeSample(out, "rachio_webhook_events_total", e.getKey(), Long.toString(e.getValue().sum()));
+        }
+        writeHeader(out, "rachio_webhook_dedup_lookups_total", "counter",
+                "Lookups in the event dedup cache, hit=duplicate event dropped");
+        writeSample(out, "rachio_webhook_dedup_lookups_total", label("result", "hit"), Long.toString(dedupHits.sum()));
+        writeSample(out, "rachio_webhook_dedup_lookups_total", label("result", "miss"),
+                Long.toString(dedupMisses.sum()));
+        writeHeader(out, "rachio_webhook_reordered_total", "counter",
+                "Webhook events not processed in arrival order, late=arrived after a newer event of the device");
+        writeSample(out, "rachio_webhook_reordered_total", label("result", "reordered"),
+                Long.toString(eventsReordered.sum()));
+        writeSample(out, "rachio_webhook_reordered_total", label("result", "late"), Long.toString(eventsLate.sum()));
+
+        Map<String, RachioQueueState> queues = new TreeMap<>(eventQueues);
+        writeHeader(out, "rachio_webhook_queue_depth", "gauge", "Webhook events waiting for processing");
+        for (Map.Entry<String, RachioQueueState> e : queues.entrySet()) {
+            writeSample(out, "rachio_webhook_queue_depth", label("bridge", e.getKey()),
+                    Integer.toString(e.getValue().depth));
+        }
+        writeHeader(out, "rachio_webhook_queue_depth_max", "gauge", "Max number of webhook events queued");
+        for (Map.Entry<String, RachioQueueState> e : queues.entrySet()) {
+            writeSample(out, "rachio_webhook_queue_depth_max", label("bridge", e.getKey()),
+                    Integer.toString(e.getValue().maxDepth));
+        }
+        writeHeader(out, "rachio_webhook_queue_capacity", "gauge", "Size of the webhook event queue");
+        for (Map.Entry<String, RachioQueueState> e : queues.entrySet()) {
+            writeSample(out, "rachio_webhook_queue_capacity", label("bridge", e.getKey()),
+                    Integer.toString(e.getValue().capacity));
+        }
+
+        Map<String, RachioCommandQueueState> commands = new TreeMap<>(commandQueues);
+        writeHeader(out, "rachio_command_queue_depth", "gauge", "Device commands waiting to be sent");
+        for (Map.Entry<String, RachioCommandQueueState> e : commands.entrySet()) {
+            writeSample(out, "rachio_command_queue_depth", label("bridge", e.getKey()),
+                    Integer.toString(e.getValue().depth));
+        }
+        writeHeader(out, "rachio_command_wait_seconds", "gauge", "Time the last device command waited in the queue");
+        for (Map.Entry<String, RachioCommandQueueState> e : commands.entrySet()) {
+            writeSample(out, "rachio_command_wait_seconds", label("bridge", e.getKey()),
+                    Double.toString(e.getValue().lastWaitTime / 1000.0));
+        }
+        writeHeader(out, "rachio_command_wait_seconds_max", "gauge", "Max time a device command waited in the queue");
+        for (Map.Entry<String, RachioCommandQueueState> e : commands.entrySet()) {
+            writeSample(out, "rachio_command_wait_seconds_max", label("bridge", e.getKey()),
+                    Double.toString(e.getValue().maxWaitTime / 1000.0));
+        }
+
+        writeHeader(out, "rachio_webhook_dispatch_duration_seconds", "histogram",
+                "Time from receiving a webhook event until the channels are updated");
+        dispatchLatency.write(out, "rachio_webhook_dispatch_duration_seconds", "");
+        return out.toString();
+    }
+
+    private static void writeHeader(StringBuilder out, String name, String type, String help) {
+        out.append("# HELP ").append(name).append(' ').append(help).append('\n');
+        out.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+    }
+
+    private static void writeSample(StringBuilder out, String name, String labels, String value) {
+        out.append(name);
+        if (!labels.isEmpty()) {
+            out.append('{').append(labels).append('}');
+        }
+        out.append(' ').append(value).append('\n');
+    }
+
+    private static String label(String name, String value) {
+        String escaped = value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+        return name + "=\"" + escaped + "\"";
+    }
+}
@@ -0,0 +1,92 @@
+/**
+ * Copyright (c) 2010-2018 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.rachio.internal.api;
+
+import static org.openhab.binding.rachio.RachioBindingConstants.*;
+
+import java.io.IOException;
+import java.util.Map;
+
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.osgi.service.component.annotations.Activate;
+import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.ConfigurationPolicy;
+import org.osgi.service.component.annotations.Deactivate;
+import org.osgi.service.component.annotations.Reference;
+import org.osgi.service.http.HttpService;
+import org.osgi.service.http.NamespaceException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * HTTP servlet exposing the binding metrics (see {@link RachioMetrics}) in Prometheus text format.
+ *
+ * @author Markus Michels (markus7017) - Initial contribution
+ */
+@Component(service = HttpServlet.class, configurationPolicy = ConfigurationPolicy.OPTIONAL, immediate = true)
+public class RachioMetricsServlet extends HttpServlet {
+    private static final long serialVersionUID = 2871462195716357286L;
+    private final Logger logger = LoggerFactory.getLogger(RachioMetricsServlet.class);
+
+    private HttpService httpService;
+
+    /**
+     * OSGi activation callback.
+     *
+     * @param config Service config.
+     */
+    @Activate
+    protected void activate(Map<String, Object> config) {
+        try {
+            httpService.registerServlet(SERVLET_METRICS_PATH, this, null, httpService.createDefaultHttpContext());
+            logger.info("Started RachioMetrics servlet at {}", SERVLET_METRICS_PATH);
+        } catch (ServletException | NamespaceException e) {
+            logger.error("Could not start RachioMetrics servlet: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * OSGi deactivation callback.
+     */
+    @Deactivate
+    protected void deactivate() {
+        httpService.unregister(SERVLET_METRICS_PATH);
+        logger.info("RachioMetrics: Servlet stopped");
+    }
+
+    @Override
+    protected void service(HttpServletRequest request, HttpServletResponse resp) throws ServletException, IOException {
+        if (!request.getMethod().equalsIgnoreCase(HTTP_METHOD_GET)) {
+            logger.debug("RachioMetrics: Unexpected method='{}'", request.getMethod());
+            resp.sendError(HttpServletResponse.SC_METHOD_NOT_ALLOWED);
+            return;
+        }
+
+        resp.setCharacterEncoding(SERVLET_WEBHOOK_CHARSET);
+        resp.setContentType(SERVLET_METRICS_CONTENT_TYPE);
+        resp.setHeader("Cache-Control", "no-cache");
+        resp.getWriter().write(RachioMetrics.toPrometheusText());
+    }
+
+    @Reference
+    public void setHttpService(HttpService httpService) {
+        this.httpService = httpService;
+    }
+
+    public void unsetHttpService(HttpService httpService) {
+        this.httpService = null;
+    }
+
+} // RachioMetricsServlet
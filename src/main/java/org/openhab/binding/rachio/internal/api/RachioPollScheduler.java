@@ -0,0 +1,157 @@
+/**
+ * Copyright (c) 2010-2018 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.rachio.internal.api;
+
+import static org.openhab.binding.rachio.RachioBindingConstants.*;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+
+import org.openhab.binding.rachio.internal.api.RachioApi.RachioApiResult;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The {@link RachioPollScheduler} computes the delay until the next status poll. The remaining API calls (as reported
+ * by the X-RateLimit headers) are spread over the time until the quota gets reset. A reserve of
+ * RACHIO_RATE_LIMIT_CRITICAL calls is never used for polling, so user commands still work when the quota runs low.
+ * Within the budget the bridge polls faster while zones are watering and slower when webhooks deliver the events. The
+ * webhooks count as active while they are registered and the last event arrived within RACHIO_POLL_WEBHOOK_TIMEOUT, so
+ * a callback, which stopped working (e.g. changed public address), falls back to the normal interval.
+ *
+ * @author Markus Michels (markus7017) - Initial contribution
+ */
+public class RachioPollScheduler {
+    private final Logger logger = LoggerFactory.getLogger(RachioPollScheduler.class);
+
+    private int pollingInterval;
+    private long wateringUntil = 0;
+    private boolean webHookRegistered = false;
+    private long lastWebHookEvent = 0;
+
+    public RachioPollScheduler(int pollingInterval) {
+        this.pollingInterval = pollingInterval;
+    }
+
+    public synchronized void setPollingInterval(int pollingInterval) {
+        this.pollingInterval = pollingInterval;
+    }
+
+    /**
+     * Watering was started or stopped (command or webhook event)
+     *
+     * @param duration Expected watering time in seconds, 0=watering stopped
+     */
+    public synchronized void setWatering(int duration) {
+        wateringUntil = duration > 0 ? System.currentTimeMillis() + duration * 1000L : 0;
+    }
+
+    public synchronized boolean isWatering() {
+        return System.currentTimeMillis() < wateringUntil;
+    }
+
+    /**
+     * Webhooks were registered at the cloud or removed / failed to register
+     *
+     * @param registered true: webhooks are registered
+     */
+    public synchronized void setWebHookRegistered(boolean registered) {
+        webHookRegistered = registered;
+        if (!registered) {
+            lastWebHookEvent = 0;
+        }
+    }
+
+    /**
+     * A webhook event was received
+     */
+    public synchronized void webHookEventReceived() {
+        lastWebHookEvent = System.currentTimeMillis();
+    }
+
+    public synchronized boolean isWebHookActive() {
+        return webHookRegistered && (lastWebHookEvent > 0)
+                && (System.currentTimeMillis() - lastWebHookEvent < RACHIO_POLL_WEBHOOK_TIMEOUT * 1000L);
+    }
+
+    /**
+     * Compute the delay for the next poll based on the last api result.
+     *
+     * @param result Last result with the rate limit information (rateLimit==0 means unknown)
+     * @return delay in seconds
+     */
+    public synchronized long getNextDelay(RachioApiResult result) {
+        long interval = pollingInterval;
+        if (isWatering()) {
+            interval = Math.min(pollingInterval, RACHIO_POLL_INTERVAL_WATERING);
+        } else if (isWebHookActive()) {
+            interval = pollingInterval * RACHIO_POLL_WEBHOOK_FACTOR;
+        }
+
+        if ((result == null) || (result.rateLimit == 0)) {
+            // no rate limit information yet
+            return interval;
+        }
+
+        long secondsToReset = getSecondsToReset(result.rateReset, System.currentTimeMillis());
+        int budget = result.rateRemaining - RACHIO_RATE_LIMIT_CRITICAL;
+        if (budget <= 0) {
+            logger.info("RachioPoll: Remaining API calls reserved for commands ({} / {}), next poll after reset at {}",
+                    result.rateRemaining, result.rateLimit, result.rateReset);
+            return secondsToReset;
+        }
+
+        long minInterval = (secondsToReset + budget - 1) / budget;
+        if (minInterval > interval) {
+            logger.debug("RachioPoll: Polling slowed down to {}s to stay within the API limit ({} calls, {}s to reset)",
+                    minInterval, budget, secondsToReset);
+            interval = minInterval;
+        }
+        return Math.max(interval, RACHIO_POLL_MIN_INTERVAL);
+    }
+
+    /**
+     * Get the number of seconds until the rate limit gets reset.
+     *
+     * @param rateReset Value of the X-RateLimit-Reset header (ISO or RFC 1123 date, epoch seconds)
+     * @param now Current time in ms
+     * @return seconds until reset; next midnight (UTC) if the header is missing or can't be parsed
+     */
+    static long getSecondsToReset(String rateReset, long now) {
+        long resetTime = 0;
+        if ((rateReset != null) && !rateReset.isEmpty()) {
+            try {
+                resetTime = Instant.parse(rateReset).toEpochMilli();
+            } catch (DateTimeParseException e) {
+                try {
+                    resetTime = ZonedDateTime.parse(rateReset, DateTimeFormatter.RFC_1123_DATE_TIME).toInstant()
+                            .toEpochMilli();
+                } catch (DateTimeParseException e2) {
+                    try {
+                        resetTime = Long.parseLong(rateReset) * 1000L;
+                    } catch (NumberFormatException e3) {
+                        resetTime = 0;
+                    }
+                }
+            }
+        }
+        if (resetTime <= now) {
+            // the daily quota is reset at midnight UTC
+            LocalDate today = Instant.ofEpochMilli(now).atZone(ZoneOffset.UTC).toLocalDate();
+            resetTime = today.plusDays(1).atStartOfDay(ZoneOffset.UTC).toInstant().toEpochMilli();
+        }
+        return Math.max(1, (resetTime - now) / 1000);
+    }
+}
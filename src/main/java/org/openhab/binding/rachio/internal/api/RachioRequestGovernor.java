@@ -0,0 +1,105 @@
+/**
+ * Copyright (c) 2010-2018 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.rachio.internal.api;
+
+import static org.openhab.binding.rachio.RachioBindingConstants.*;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.openhab.binding.rachio.internal.api.RachioApi.RachioApiResult;
+
+/**
+ * The {@link RachioRequestGovernor} controls the API calls for one apikey. All RachioHttp instances using the same
+ * apikey (bridges, discovery) share the governor, so they don't burn the daily quota independently.
+ *
+ * The governor is a token bucket, which holds the remaining calls of the day. It gets seeded from the X-RateLimit
+ * headers of each response, consumes one token per call and refills to the limit when the reset time has passed.
+ * Each priority keeps a reserve for the higher ones: discovery stops first, then polling, commands are served until
+ * the block threshold.
+ *
+ * @author Markus Michels (markus7017) - Initial contribution
+ */
+public class RachioRequestGovernor {
+    public enum Priority {
+        COMMAND(RACHIO_RATE_LIMIT_BLOCK),
+        POLL(RACHIO_RATE_LIMIT_CRITICAL),
+        DISCOVERY(RACHIO_RATE_LIMIT_WARNING);
+
+        private final int reserve;
+
+        Priority(int reserve) {
+            this.reserve = reserve;
+        }
+    }
+
+    private static final Map<String, RachioRequestGovernor> governors = new ConcurrentHashMap<>();
+
+    private int rateLimit = 0; // 0=unknown, no rate limit information yet
+    private int tokens = 0;
+    private long resetTime = 0;
+
+    /**
+     * Get the governor for the given apikey
+     *
+     * @param apikey Rachio apikey
+     * @return shared governor instance
+     */
+    public static RachioRequestGovernor getInstance(String apikey) {
+        return governors.computeIfAbsent(apikey, key -> new RachioRequestGovernor());
+    }
+
+    /**
+     * Take a token for the next API call.
+     *
+     * @param priority Priority of the call
+     * @return true: call can be sent, false: the remaining calls are reserved for higher priorities
+     */
+    public synchronized boolean tryAcquire(Priority priority) {
+        if ((rateLimit > 0) && (System.currentTimeMillis() >= resetTime)) {
+            // quota was reset, wait for the next response to get the new numbers
+            tokens = rateLimit;
+            rateLimit = 0;
+        }
+        if (rateLimit == 0) {
+            return true;
+        }
+        if (tokens <= priority.reserve) {
+            return false;
+        }
+        tokens--;
+        return true;
+    }
+
+    /**
+     * Return the token of a call, which was not sent
+     */
+    public synchronized void release() {
+        if (rateLimit > 0) {
+            tokens++;
+        }
+    }
+
+    /**
+     * Sync the bucket with the rate limit information returned by the Rachio cloud
+     *
+     * @param result API result including the rate limit headers
+     */
+    public synchronized void update(RachioApiResult result) {
+        if (result.rateLimit == 0) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        rateLimit = result.rateLimit;
+        tokens = result.rateRemaining;
+        resetTime = now + RachioPollScheduler.getSecondsToReset(result.rateReset, now) * 1000L;
+    }
+}
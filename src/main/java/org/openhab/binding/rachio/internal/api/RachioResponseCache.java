@@ -0,0 +1,111 @@
+/**
+ * Copyright (c) 2010-2018 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.rachio.internal.api;
+
+import static org.openhab.binding.rachio.RachioBindingConstants.*;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.openhab.binding.rachio.internal.api.RachioApi.RachioApiResult;
+
+/**
+ * The {@link RachioResponseCache} keeps GET responses for a per-endpoint time to live. When an entry has expired, but
+ * the cloud provided an ETag or Last-Modified header, the entry is revalidated with a conditional request instead of
+ * being fetched again. Any state changing request (PUT/POST/DELETE) drops the cached data of that apikey.
+ *
+ * @author Markus Michels (markus7017) - Initial contribution
+ */
+public class RachioResponseCache {
+
+    public static class RachioCachedResponse {
+        public final RachioApiResult result;
+        public final String etag;
+        public final String lastModified;
+        private volatile long expires;
+
+        private RachioCachedResponse(RachioApiResult result, String etag, String lastModified, long expires) {
+            this.result = result;
+            this.etag = etag;
+            this.lastModified = lastModified;
+            this.expires = expires;
+        }
+
+        public boolean isFresh() {
+            return System.currentTimeMillis() < expires;
+        }
+    }
+
+    private final ConcurrentHashMap<String, RachioCachedResponse> cache = new ConcurrentHashMap<>();
+
+    /**
+     * Get the cached response
+     *
+     * @param apikey apikey used for the request
+     * @param url Complete url incl. parameters
+     * @return cached response (might be stale, check isFresh()) or null
+     */
+    public RachioCachedResponse get(String apikey, String url) {
+        return cache.get(getKey(apikey, url));
+    }
+
+    /**
+     * Store a successful GET response. Responses of endpoints without TTL are only stored when they can be
+     * revalidated (ETag/Last-Modified).
+     */
+    public void put(String apikey, String url, RachioApiResult result, String etag, String lastModified) {
+        int ttl = getTtl(url);
+        if ((ttl == 0) && (etag == null) && (lastModified == null)) {
+            return;
+        }
+        cache.put(getKey(apikey, url),
+                new RachioCachedResponse(result, etag, lastModified, System.currentTimeMillis() + ttl * 1000L));
+    }
+
+    /**
+     * The cloud confirmed that the cached data is still valid (304 Not Modified)
+     */
+    public void revalidated(String url, RachioCachedResponse entry) {
+        entry.expires = System.currentTimeMillis() + getTtl(url) * 1000L;
+    }
+
+    /**
+     * Drop the cached device and webhook data after a state change. The person lookup is kept, it doesn't change.
+     *
+     * @param apikey apikey used for the state changing request
+     */
+    public void invalidate(String apikey) {
+        String prefix = apikey + " ";
+        cache.keySet().removeIf(key -> key.startsWith(prefix) && !key.endsWith(APIURL_GET_PERSON));
+    }
+
+    private static String getKey(String apikey, String url) {
+        return apikey + " " + url;
+    }
+
+    /**
+     * Time to live for the given endpoint
+     *
+     * @param url Request url
+     * @return TTL in seconds, 0=no caching
+     */
+    private static int getTtl(String url) {
+        if (url.endsWith(APIURL_GET_PERSON)) {
+            return RACHIO_CACHE_TTL_PERSON;
+        }
+        if (url.contains(APIURL_DEV_QUERY_WEBHOOK + "/") && url.endsWith("/webhook")) {
+            return RACHIO_CACHE_TTL_WEBHOOK;
+        }
+        if (url.contains(APIURL_GET_DEVICE + "/")) {
+            return RACHIO_CACHE_TTL_DEVICE;
+        }
+        return 0;
+    }
+}
@@ -0,0 +1,79 @@
+/**
+ * Copyright (c) 2010-2018 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.rachio.internal.api;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The {@link RachioSingleFlight} coalesces identical concurrent requests. The first caller for a key performs the
+ * call, callers arriving while it's in flight wait for it and get the same result (or exception). Nothing is cached,
+ * the key is released as soon as the call has completed.
+ *
+ * This avoids duplicate cloud calls when bridge initialization, polling and discovery request the same data at the
+ * same time (e.g. on startup).
+ *
+ * @author Markus Michels (markus7017) - Initial contribution
+ */
+public class RachioSingleFlight {
+    private static final Logger logger = LoggerFactory.getLogger(RachioSingleFlight.class);
+
+    private static final ConcurrentHashMap<String, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+
+    @FunctionalInterface
+    public interface RachioCall<T> {
+        T call() throws RachioApiException;
+    }
+
+    /**
+     * Execute the call or join an identical call in flight
+     *
+     * @param key Identifies the request (should include the apikey, so different accounts don't share results)
+     * @param call The request
+     * @return Result of the call
+     * @throws RachioApiException
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> T execute(String key, RachioCall<T> call) throws RachioApiException {
+        CompletableFuture<Object> future = new CompletableFuture<>();
+        CompletableFuture<Object> pending = inFlight.putIfAbsent(key, future);
+        if (pending != null) {
+            logger.trace("RachioHttp: Identical request in flight, waiting for the result");
+            try {
+                return (T) pending.get();
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause();
+                if (cause instanceof RachioApiException) {
+                    throw (RachioApiException) cause;
+                }
+                throw new RachioApiException(cause != null ? cause.toString() : e.toString(), e);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RachioApiException("Interrupted while waiting for pending request", e);
+            }
+        }
+
+        try {
+            T result = call.call();
+            future.complete(result);
+            return result;
+        } catch (RachioApiException | RuntimeException | Error e) {
+            future.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, future);
+        }
+    }
+}
@@ -0,0 +1,210 @@
+/**
+ * Copyright (c) 2010-2018 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.rachio.internal.api;
+
+import static org.openhab.binding.rachio.RachioBindingConstants.*;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import org.eclipse.smarthome.config.core.ConfigConstants;
+import org.openhab.binding.rachio.internal.api.RachioApi.RachioApiWebHookEntry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.gson.JsonParseException;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+/**
+ * The {@link RachioSnapshot} is the last good account data (person and devices incl. zones) as received from the
+ * cloud and the webhooks registered by the binding. It's stored as gzip'ed JSON under userdata/rachio, one file per
+ * apikey, so the bridge can come up immediately after a restart and revalidate the data in the background.
+ *
+ * The file name is a hash of the apikey, the apikey itself is not stored. Personal data (name, email) is not stored
+ * either, it's filled in by the revalidation.
+ *
+ * Bridge and discovery may use the same apikey, so reading and writing a file is serialized by a lock per file and
+ * each write uses its own temp file.
+ *
+ * @author Markus Michels (markus7017) - Initial contribution
+ */
+class RachioSnapshot {
+    private static final Logger logger = LoggerFactory.getLogger(RachioSnapshot.class);
+
+    private static final int SNAPSHOT_VERSION = 2; // 2: without fullName and email
+    private static final Map<String, Object> fileLocks = new ConcurrentHashMap<>();
+
+    int version = SNAPSHOT_VERSION;
+    long savedAt = 0;
+    String personId = "";
+    String username = "";
+    List<RachioCloudDevice> devices = new ArrayList<>();
+    Map<String, RachioApiWebHookEntry> webhooks = new HashMap<>(); // deviceId -> webhook registered by the binding
+
+    /**
+     * Load the snapshot of an account
+     *
+     * @param apikey Rachio apikey
+     * @return snapshot, null if there is none or it can't be read
+     */
+    static RachioSnapshot load(String apikey) {
+        File file = getFile(apikey);
+        synchronized (getLock(file)) {
+            return load(file);
+        }
+    }
+
+    private static RachioSnapshot load(File file) {
+        if (!file.exists()) {
+            return null;
+        }
+        try (JsonReader reader = new JsonReader(
+                new InputStreamReader(new GZIPInputStream(new FileInputStream(file)), StandardCharsets.UTF_8))) {
+            RachioSnapshot snapshot = new RachioSnapshot();
+            snapshot.version = 0;
+            reader.beginObject();
+            while (reader.hasNext()) {
+                String name = reader.nextName();
+                if (reader.peek() == JsonToken.NULL) {
+                    reader.skipValue();
+                    continue;
+                }
+                switch (name) {
+                    case "version":
+                        snapshot.version = reader.nextInt();
+                        break;
+                    case "savedAt":
+                        snapshot.savedAt = reader.nextLong();
+                        break;
+                    case "personId":
+                        snapshot.personId = reader.nextString();
+                        break;
+                    case "username":
+                        snapshot.username = reader.nextString();
+                        break;
+                    case "devices":
+                        reader.beginArray();
+                        while (reader.hasNext()) {
+                            RachioCloudDevice device = RachioJsonCodec.fromJson(reader, RachioCloudDevice.class);
+                            if (device != null) {
+                                snapshot.devices.add(device);
+                            }
+                        }
+                        reader.endArray();
+                        break;
+                    case "webhooks":
+                        reader.beginObject();
+                        while (reader.hasNext()) {
+                            String deviceId = reader.nextName();
+                            RachioApiWebHookEntry webhook = RachioJsonCodec.fromJson(reader,
+                                    RachioApiWebHookEntry.class);
+                            if (webhook != null) {
+                                snapshot.webhooks.put(deviceId, webhook);
+                            }
+                        }
+                        reader.endObject();
+                        break;
+                    default:
+                        reader.skipValue();
+                }
+            }
+            reader.endObject();
+
+            if ((snapshot.version != SNAPSHOT_VERSION) || snapshot.personId.isEmpty()) {
+                logger.debug("RachioSnapshot: Snapshot '{}' is outdated (version {}), ignored", file, snapshot.version);
+                return null;
+            }
+            return snapshot;
+        } catch (IOException | JsonParseException | IllegalStateException | NumberFormatException e) {
+            logger.debug("RachioSnapshot: Unable to read snapshot '{}': {}", file, e.toString());
+            return null;
+        }
+    }
+
+    /**
+     * Save the snapshot of an account. The file is replaced atomically, so a crash never leaves a partial snapshot.
+     *
+     * @param apikey Rachio apikey
+     * @param snapshot Account data
+     */
+    static void save(String apikey, RachioSnapshot snapshot) {
+        File file = getFile(apikey);
+        synchronized (getLock(file)) {
+            save(file, snapshot);
+        }
+    }
+
+    private static void save(File file, RachioSnapshot snapshot) {
+        File tempFile = null;
+        try {
+            Files.createDirectories(file.getParentFile().toPath());
+            tempFile = Files.createTempFile(file.getParentFile().toPath(), file.getName(), ".tmp").toFile();
+            try (JsonWriter out = new JsonWriter(new OutputStreamWriter(
+                    new GZIPOutputStream(new FileOutputStream(tempFile)), StandardCharsets.UTF_8))) {
+                out.beginObject();
+                out.name("version").value(SNAPSHOT_VERSION);
+                out.name("savedAt").value(System.currentTimeMillis());
+                out.name("personId").value(snapshot.personId);
+                out.name("username").value(snapshot.username);
+                out.name("devices").beginArray();
+                for (RachioCloudDevice device : snapshot.devices) {
+                    RachioJsonCodec.getGson().toJson(device, RachioCloudDevice.class, out);
+                }
+                out.endArray();
+                out.name("webhooks").beginObject();
+                for (Map.Entry<String, RachioApiWebHookEntry> webhook : snapshot.webhooks.entrySet()) {
+                    out.name(webhook.getKey());
+                    RachioJsonCodec.getGson().toJson(webhook.getValue(), RachioApiWebHookEntry.class, out);
+                }
+                out.endObject();
+                out.endObject();
+            }
+            try {
+                Files.move(tempFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING,
+                        StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tempFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
+            logger.trace("RachioSnapshot: {} devices saved to '{}'", snapshot.devices.size(), file);
+        } catch (IOException | RuntimeException e) {
+            logger.debug("RachioSnapshot: Unable to save snapshot '{}': {}", file, e.toString());
+            if (tempFile != null) {
+                tempFile.delete();
+            }
+        }
+    }
+
+    private static Object getLock(File file) {
+        return fileLocks.computeIfAbsent(file.getPath(), path -> new Object());
+    }
+
+    private static File getFile(String apikey) {
+        return new File(ConfigConstants.getUserDataFolder() + File.separator + BINDING_ID,
+                RachioApi.getMD5Hash("snapshot_" + apikey) + ".json.gz");
+    }
+}
@@ -0,0 +1,76 @@
+/**
+ * Copyright (c) 2010-2018 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.rachio.internal.api;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The {@link RachioTransport} performs the raw http exchange for {@link RachioHttp}. Request setup, rate limit
+ * handling and error checking stay in RachioHttp, the transport only moves the bytes.
+ *
+ * @author Markus Michels (markus7017) - Initial contribution
+ */
+public interface RachioTransport {
+
+    public static class RachioTransportResponse {
+        public int responseCode = 0;
+        public String content = "";
+        private final Map<String, String> headers = new HashMap<>();
+
+        public void setHeader(String name, String value) {
+            if ((name != null) && (value != null)) {
+                headers.put(name.toLowerCase(), value);
+            }
+        }
+
+        public String getHeader(String name) {
+            return headers.get(name.toLowerCase());
+        }
+    }
+
+    /**
+     * Consumes the response body directly from the connection, e.g. to parse large JSON payloads without buffering
+     * them as a String.
+     */
+    @FunctionalInterface
+    public interface RachioContentReader {
+        void read(InputStream content) throws IOException;
+    }
+
+    /**
+     * Send a request to the Rachio cloud and read the response.
+     *
+     * @param method HTTP method (GET/PUT/POST/DELETE)
+     * @param url Complete URL incl. url parameters
+     * @param apikey Rachio apikey (used as Bearer token), empty for unauthorized calls
+     * @param data Request body for PUT/POST, null otherwise
+     * @param requestHeaders Additional request headers (e.g. If-None-Match), null if none
+     * @param contentReader If not null the body of a successful (200) response is passed to the reader instead of
+     *            filling response.content. Error responses are always returned as content.
+     * @return response code, headers and content
+     * @throws IOException on transport errors (connect/read timeout, unknown host etc.)
+     */
+    public RachioTransportResponse execute(String method, String url, String apikey, String data,
+            Map<String, String> requestHeaders, RachioContentReader contentReader) throws IOException;
+
+    public default RachioTransportResponse execute(String method, String url, String apikey, String data)
+            throws IOException {
+        return execute(method, url, apikey, data, null, null);
+    }
+
+    /**
+     * Release all resources (pooled connections etc.)
+     */
+    public void dispose();
+}
@@ -0,0 +1,111 @@
+/**
+ * Copyright (c) 2010-2018 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.rachio.internal.api;
+
+import static org.openhab.binding.rachio.RachioBindingConstants.*;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The {@link RachioUrlConnectionTransport} is the fallback transport using HttpURLConnection. It is used when no
+ * pooled http client is available (e.g. HttpClientFactory not bound yet). The response stream is always read to the
+ * end and closed, so the JDK is able to keep the connection alive and re-use it for the next call.
+ *
+ * @author Markus Michels (markus7017) - Initial contribution
+ */
+public class RachioUrlConnectionTransport implements RachioTransport {
+
+    @Override
+    public RachioTransportResponse execute(String method, String url, String apikey, String data,
+            Map<String, String> requestHeaders, RachioContentReader contentReader) throws IOException {
+        RachioTransportResponse response = new RachioTransportResponse();
+        HttpURLConnection request = (HttpURLConnection) new URL(url).openConnection();
+        try {
+            if ((apikey != null) && !apikey.isEmpty()) {
+                request.setRequestProperty("Authorization", "Bearer " + apikey);
+            }
+            request.setRequestMethod(method);
+            request.setConnectTimeout(HTTP_TIMOUT);
+            request.setReadTimeout(HTTP_READ_TIMEOUT);
+            request.setRequestProperty("User-Agent", SERVLET_WEBHOOK_USER_AGENT);
+            request.setRequestProperty("Content-Type", SERVLET_WEBHOOK_APPLICATION_JSON);
+            if (requestHeaders != null) {
+                for (Map.Entry<String, String> header : requestHeaders.entrySet()) {
+                    request.setRequestProperty(header.getKey(), header.getValue());
+                }
+            }
+            if ((data != null) && (method.equals(HTTP_METHOD_PUT) || method.equals(HTTP_METHOD_POST))) {
+                request.setDoOutput(true);
+                try (OutputStream out = request.getOutputStream()) {
+                    out.write(data.getBytes(StandardCharsets.UTF_8));
+                }
+            }
+
+            response.responseCode = request.getResponseCode();
+            for (Map.Entry<String, List<String>> header : request.getHeaderFields().entrySet()) {
+                if ((header.getKey() != null) && !header.getValue().isEmpty()) {
+                    response.setHeader(header.getKey(), header.getValue().get(0));
+                }
+            }
+
+            // error responses come with the error stream, read it anyway to allow connection re-use
+            InputStream in = response.responseCode < HttpURLConnection.HTTP_BAD_REQUEST ? request.getInputStream()
+                    : request.getErrorStream();
+            if ((in != null) && (contentReader != null) && (response.responseCode == HttpURLConnection.HTTP_OK)) {
+                try {
+                    contentReader.read(in);
+                    drain(in);
+                } finally {
+                    in.close();
+                }
+            } else if (in != null) {
+                StringBuilder content = new StringBuilder();
+                try (BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+                    String inputLine;
+                    while ((inputLine = reader.readLine()) != null) {
+                        content.append(inputLine);
+                    }
+                }
+                response.content = content.toString();
+            }
+            return response;
+        } catch (IOException e) {
+            // connection state is unknown, don't return it to the keep-alive cache
+            request.disconnect();
+            throw e;
+        }
+    }
+
+    /**
+     * Read remaining data (e.g. the reader stopped before the end of the document), otherwise the connection can't be
+     * re-used.
+     */
+    private static void drain(InputStream in) throws IOException {
+        byte[] buffer = new byte[1024];
+        while (in.read(buffer) != -1) {
+            // skip
+        }
+    }
+
+    @Override
+    public void dispose() {
+        // connections are managed by the JDK keep-alive cache
+    }
+}
@@ -0,0 +1,199 @@
+/**
+ * Copyright (c) 2010-2018 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.rachio.internal.api;
+
+import static org.openhab.binding.rachio.RachioBindingConstants.*;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.openhab.binding.rachio.internal.api.RachioApi.RachioApiResult;
+import org.openhab.binding.rachio.internal.api.RachioApi.RachioApiWebHookEntry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.gson.stream.JsonWriter;
+
+/**
+ * The {@link RachioWebHookReconciler} makes sure that each device of a bridge has exactly one webhook pointing to our
+ * callback url. It compares the webhooks registered in the cloud with the desired state and only sends the required
+ * changes: stale or duplicate entries get deleted, a new webhook is only registered when no matching one exists.
+ *
+ * The registrations are remembered per apikey and saved with the snapshot (see RachioSnapshot), so they survive a
+ * restart. When nothing has changed the reconciliation costs one verification GET per device. It bypasses the
+ * response cache, because another client could have changed the webhooks.
+ *
+ * @author Markus Michels (markus7017) - Initial contribution
+ */
+public class RachioWebHookReconciler {
+    private final Logger logger = LoggerFactory.getLogger(RachioWebHookReconciler.class);
+
+    private static final Map<String, RachioWebHookReconciler> reconcilers = new ConcurrentHashMap<>();
+
+    private static final String[] EVENT_TYPES = { WHE_DEVICE_STATUS, WHE_RAIN_DELAY, WEATHER_INTELLIGENCE,
+            WHE_WATER_BUDGET, WHE_ZONE_DELTA, WHE_SCHEDULE_STATUS, WHE_ZONE_STATUS, WHE_RAIN_SENSOR_DETECTION,
+            WHE_DELTA };
+
+    // deviceId -> webhook registered by us
+    private final Map<String, RachioApiWebHookEntry> registrations = new ConcurrentHashMap<>();
+
+    /**
+     * Get the reconciler for the given apikey
+     *
+     * @param apikey Rachio apikey
+     * @return shared reconciler instance
+     */
+    public static RachioWebHookReconciler getInstance(String apikey) {
+        return reconcilers.computeIfAbsent(apikey, key -> new RachioWebHookReconciler());
+    }
+
+    /**
+     * @return copy of the registrations (deviceId -> webhook)
+     */
+    public Map<String, RachioApiWebHookEntry> getRegistrations() {
+        return new HashMap<>(registrations);
+    }
+
+    /**
+     * Take over the registrations saved by a previous run, registrations of this run take precedence
+     *
+     * @param saved deviceId -> webhook
+     */
+    public void restoreRegistrations(Map<String, RachioApiWebHookEntry> saved) {
+        saved.forEach(registrations::putIfAbsent);
+    }
+
+    /**
+     * Reconcile the webhooks of all given devices. A failure for one device doesn't stop the others.
+     *
+     * @param httpApi Http connection of the bridge
+     * @param apiUrl Base url of the cloud api
+     * @param deviceIds Devices of the bridge
+     * @param callbackUrl Our callback url
+     * @param externalId External id of the bridge, used to filter inbound events
+     * @param clearAllCallbacks true: delete all other webhooks of the devices
+     * @return true: registrations have changed
+     * @throws RachioApiException of the first device, which failed
+     */
+    public synchronized boolean reconcile(RachioHttp httpApi, String apiUrl, Collection<String> deviceIds,
+            String callbackUrl, String externalId, boolean clearAllCallbacks) throws RachioApiException {
+        RachioApiException firstError = null;
+        boolean changed = false;
+        for (String deviceId : deviceIds) {
+            try {
+                changed |= reconcileDevice(httpApi, apiUrl, deviceId, callbackUrl, externalId, clearAllCallbacks);
+            } catch (RachioApiException e) {
+                logger.debug("RachioWebHook: Unable to reconcile webhook for device '{}': {}", deviceId, e.toString());
+                if (firstError == null) {
+                    firstError = e;
+                }
+            }
+        }
+        if (firstError != null) {
+            throw firstError;
+        }
+        return changed;
+    }
+
+    /**
+     * @return true: registration has changed
+     */
+    private boolean reconcileDevice(RachioHttp httpApi, String apiUrl, String deviceId, String callbackUrl,
+            String externalId, boolean clearAllCallbacks) throws RachioApiException {
+        String json = httpApi.httpGetUncached(apiUrl + APIURL_DEV_QUERY_WEBHOOK + "/" + deviceId + "/webhook",
+                null).resultString;
+        logger.trace("RachioWebHook: Registered WebHooks for device '{}' - JSON='{}'", deviceId, json);
+        RachioApiWebHookEntry[] webhooks = RachioJsonCodec.fromJson(json, RachioApiWebHookEntry[].class);
+
+        RachioApiWebHookEntry registered = registrations.get(deviceId);
+        RachioApiWebHookEntry active = null;
+        int deleted = 0;
+        for (int i = 0; (webhooks != null) && (i < webhooks.length); i++) {
+            RachioApiWebHookEntry whe = webhooks[i];
+            if (whe == null) {
+                continue;
+            }
+            logger.debug("RachioApi: WebHook #{}: id='{}', url='{}', externalId='{}'", i, whe.id, whe.url,
+                    whe.externalId);
+            if ((active == null) && whe.url.equals(callbackUrl) && whe.externalId.equals(externalId)) {
+                active = whe;
+                continue;
+            }
+
+            // duplicates, entries from a previous instance (other externalId) or our old callback url
+            boolean ours = whe.url.equals(callbackUrl) || ((registered != null) && registered.id.equals(whe.id));
+            if (ours || clearAllCallbacks) {
+                logger.debug("RachioWebHook: Delete webhook '{}' (url='{}', externalId='{}')", whe.id, whe.url,
+                        whe.externalId);
+                httpApi.httpDelete(apiUrl + APIURL_DEV_DELETE_WEBHOOK + "/" + whe.id, null);
+                deleted++;
+            }
+        }
+
+        if (active != null) {
+            boolean changed = (registered == null) || !registered.id.equals(active.id);
+            if (changed || (deleted > 0)) {
+                logger.debug("RachioWebHook: Webhook '{}' for device '{}' is active, {} stale entries deleted",
+                        active.id, deviceId, deleted);
+            } else {
+                logger.trace("RachioWebHook: Webhook for device '{}' is unchanged", deviceId);
+            }
+            registrations.put(deviceId, active);
+            return changed;
+        }
+
+        logger.debug("RachioApi: Register WebHook for device '{}', callback url = '{}'", deviceId, callbackUrl);
+        RachioApiResult result = httpApi.httpPost(apiUrl + APIURL_DEV_POST_WEBHOOK,
+                buildWebHookRequest(deviceId, callbackUrl, externalId));
+        RachioApiWebHookEntry created = RachioJsonCodec.fromJson(result.resultString, RachioApiWebHookEntry.class);
+        if (created == null) {
+            created = new RachioApiWebHookEntry();
+        }
+        created.url = callbackUrl;
+        created.externalId = externalId;
+        registrations.put(deviceId, created);
+        return true;
+    }
+
+    /**
+     * Build the registration request
+     *
+     * {
+     * "device":{"id":"2a5e7d3c-c140-4e2e-91a1-a212a518adc5"},
+     * "externalId" : "external company ID",
+     * "url":"https://www.mydomain.com/another_webhook",
+     * "eventTypes":[{"id":"1"},{"id":"2"}]
+     * }
+     */
+    private static String buildWebHookRequest(String deviceId, String callbackUrl, String externalId)
+            throws RachioApiException {
+        StringWriter json = new StringWriter();
+        try (JsonWriter out = new JsonWriter(json)) {
+            out.beginObject();
+            out.name("device").beginObject().name("id").value(deviceId).endObject();
+            out.name("externalId").value(externalId);
+            out.name("url").value(callbackUrl);
+            out.name("eventTypes").beginArray();
+            for (String eventType : EVENT_TYPES) {
+                out.beginObject().name("id").value(eventType).endObject();
+            }
+            out.endArray();
+            out.endObject();
+        } catch (IOException e) {
+            throw new RachioApiException("Unable to build webhook request: " + e.getMessage(), e);
+        }
+        return json.toString();
+    }
+}
@@ -13,7 +13,6 @@ import static org.openhab.binding.rachio.RachioBindingConstants.*;
 import java.io.IOException;
 import java.security.cert.X509Certificate;
 import java.util.Map;
-import java.util.Scanner;
 
 import javax.security.auth.x500.X500Principal;
 import javax.servlet.ServletException;
@@ -22,6 +21,8 @@ import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 
 import org.openhab.binding.rachio.internal.RachioHandlerFactory;
+import org.openhab.binding.rachio.internal.api.RachioApi.RachioApiResult;
+import org.openhab.binding.rachio.internal.jfr.RachioFlightRecorder;
 import org.osgi.service.component.annotations.Activate;
 import org.osgi.service.component.annotations.Component;
 import org.osgi.service.component.annotations.ConfigurationPolicy;
@@ -34,7 +35,7 @@ import org.osgi.service.http.NamespaceException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
 
 /**
  * Main OSGi service and HTTP servlet for Rachio Event Webhook.
@@ -45,7 +46,6 @@ import com.google.gson.Gson;
 public class RachioWebHookServlet extends HttpServlet {
     private static final long serialVersionUID = -4654253998990066051L;
     private final Logger logger = LoggerFactory.getLogger(RachioWebHookServlet.class);
-    private final Gson gson = new Gson();
 
     private HttpService httpService;
     private RachioHandlerFactory rachioHandlerFactory;
@@ -77,72 +77,99 @@ public class RachioWebHookServlet extends HttpServlet {
     @SuppressWarnings("null")
     @Override
     protected void service(HttpServletRequest request, HttpServletResponse resp) throws ServletException, IOException {
-        String data = inputStreamToString(request);
-        try {
-            String ipAddress = request.getHeader("HTTP_X_FORWARDED_FOR");
-            if (ipAddress == null) {
-                ipAddress = request.getRemoteAddr();
-            }
-            String path = request.getRequestURI();
+        long receivedNanos = System.nanoTime();
+        Object jfrEvent = RachioFlightRecorder.beginWebHook();
+        String ipAddress = request.getHeader("HTTP_X_FORWARDED_FOR");
+        if (ipAddress == null) {
+            ipAddress = request.getRemoteAddr();
+        }
+        String path = request.getRequestURI();
+
+        logger.trace("RachioWebHook: Reqeust from {}:{}{} ({}:{}, {})", ipAddress, request.getRemotePort(), path,
+                request.getRemoteHost(), request.getServerPort(), request.getProtocol());
+        if (!path.equalsIgnoreCase(SERVLET_WEBHOOK_PATH)) {
+            logger.error("RachioWebHook: Invalid request received - path = {}", path);
+            RachioMetrics.recordEvent(null, RachioMetrics.EVENT_REJECTED);
+            acknowledge(resp);
+            return;
+        }
 
-            logger.trace("RachioWebHook: Reqeust from {}:{}{} ({}:{}, {})", ipAddress, request.getRemotePort(), path,
-                    request.getRemoteHost(), request.getServerPort(), request.getProtocol());
-            if (!path.equalsIgnoreCase(SERVLET_WEBHOOK_PATH)) {
-                logger.error("RachioWebHook: Invalid request received - path = {}", path);
+        // reject unknown sources before reading the body
+        if ((rachioHandlerFactory == null) || !rachioHandlerFactory.isTrustedSource(ipAddress)) {
+            RachioMetrics.recordEvent(null, RachioMetrics.EVENT_REJECTED);
+            acknowledge(resp);
+            return;
+        }
+
+        // read the body in a single pass, decode only the fields required for routing
+        RachioEventDecoder decoder = new RachioEventDecoder(request.getInputStream(), RACHIO_WEBHOOK_MAX_BODY);
+        RachioEvent event = null;
+        try {
+            event = decoder.decodeHeader();
+        } catch (JsonParseException e) {
+            RachioMetrics.recordEvent(null, RachioMetrics.EVENT_REJECTED);
+            if (decoder.isTooLarge()) {
+                logger.warn("RachioWebHook: Request from {} rejected, body exceeds {} bytes", ipAddress,
+                        RACHIO_WEBHOOK_MAX_BODY);
+                resp.sendError(HttpServletResponse.SC_REQUEST_ENTITY_TOO_LARGE);
                 return;
             }
+            logger.error("RachioWebHook: Exception processing callback: {}, data='{}'", e.getMessage(),
+                    decoder.getData());
+            acknowledge(resp);
+            return;
+        }
+        long parsedNanos = System.nanoTime();
+
+        // acknowledge immediately, the event is processed asynchronously by the bridge (see RachioEventQueue)
+        acknowledge(resp);
 
+        try {
             X509Certificate cert = extractCertificate(request);
             if (cert != null) {
                 X500Principal principal = cert.getIssuerX500Principal();
                 logger.debug("RachioEvent: Certificate from '{}'", principal.getName());
             }
 
-            if (data != null) {
-                // Fix malformed API v3 Event JSON
-                data = data.replace("\"{", "{");
-                data = data.replace("}\"", "}");
-                data = data.replace("\\", "");
-                data = data.replace("\"?\"", "'?'"); // fix json for"summary" : "<Device> has turned off and back on.
-                                                     // This
-                                                     // is usually not a problem. If power cycles continue, tap "?"
-                                                     // above to
-                                                     // contact Rachio Support.",
-
-                logger.trace("RachioWebHook: Data='{}'", data);
-                RachioEvent event = gson.fromJson(data, RachioEvent.class);
-                if ((event != null) && (rachioHandlerFactory != null)) {
-                    logger.trace("RachioEvent {}.{} for device '{}': {}", event.category, event.type, event.deviceId,
-                            event.summary);
-
-                    event.apiResult.setRateLimit(request.getHeader(RACHIO_JSON_RATE_LIMIT),
-                            request.getHeader(RACHIO_JSON_RATE_REMAINING), request.getHeader(RACHIO_JSON_RATE_RESET));
-
-                    if (!rachioHandlerFactory.webHookEvent(ipAddress, event)) {
-                        logger.debug("RachioWebHook: Event-JSON='{}'", data);
-                    }
+            if (logger.isTraceEnabled()) {
+                logger.trace("RachioWebHook: Data='{}'", decoder.getData());
+            }
+            if (event != null) {
+                event.receivedNanos = receivedNanos;
+                event.parsedNanos = parsedNanos;
+                event.jfrEvent = jfrEvent;
+                RachioMetrics.recordEvent(event.type, RachioMetrics.EVENT_RECEIVED);
+                logger.trace("RachioEvent {}.{} for device '{}'", event.type, event.subType, event.deviceId);
+
+                String rateLimit = request.getHeader(RACHIO_JSON_RATE_LIMIT);
+                if (rateLimit != null) {
+                    event.apiResult = new RachioApiResult();
+                    event.apiResult.setRateLimit(rateLimit, request.getHeader(RACHIO_JSON_RATE_REMAINING),
+                            request.getHeader(RACHIO_JSON_RATE_RESET));
+                }
 
-                    return;
+                if (!rachioHandlerFactory.webHookEvent(event)) {
+                    // not queued, otherwise the bridge commits the JFR event after processing
+                    if (logger.isDebugEnabled()) {
+                        logger.debug("RachioWebHook: Event-JSON='{}'", decoder.getData());
+                    }
+                    RachioFlightRecorder.commitWebHook(jfrEvent, event.type, event.deviceId, false,
+                            parsedNanos - receivedNanos, System.nanoTime() - parsedNanos, 0, 0);
                 }
-                logger.debug("RachioWebHook: Unable to process inbound request, data='{}'", data);
+                return;
             }
+            logger.debug("RachioWebHook: Unable to process inbound request, data='{}'", decoder.getData());
+            RachioMetrics.recordEvent(null, RachioMetrics.EVENT_REJECTED);
         } catch (Exception e) {
-            if (data != null) {
-                logger.error("RachioWebHook: Exception processing callback: {}, data='{}'", e.getMessage(), data);
-            } else {
-                logger.error("RachioWebHook: Exception processing callback: {}", e.getMessage());
-
-            }
-        } finally {
-            setHeaders(resp);
-            resp.getWriter().write("");
+            logger.error("RachioWebHook: Exception processing callback: {}, data='{}'", e.getMessage(),
+                    decoder.getData());
         }
     } // service()
 
-    @SuppressWarnings("resource")
-    private String inputStreamToString(HttpServletRequest request) throws IOException {
-        Scanner scanner = new Scanner(request.getInputStream()).useDelimiter("\\A");
-        return scanner.hasNext() ? scanner.next() : "";
+    private void acknowledge(HttpServletResponse resp) throws IOException {
+        setHeaders(resp);
+        resp.getWriter().write("");
+        resp.flushBuffer();
     }
 
     private void setHeaders(HttpServletResponse response) {
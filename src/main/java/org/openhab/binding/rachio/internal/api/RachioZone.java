@@ -37,17 +37,17 @@ public class RachioZone extends RachioCloudZone {
     protected String uniqueId = "";
 
     // public String lastEvent = "";
-    protected int startRunTime = 0;
+    protected volatile int startRunTime = 0;
 
     /**
-     * Use reflection to shallow copy simple type fields with matching names from one object to another
+     * Create the zone from the cloud data
      *
-     * @param fromObj the object to copy from
-     * @param toObj the object to copy to
+     * @param zone Zone data as received from the cloud
+     * @param uniqueId Unique id of the device
      */
     public RachioZone(RachioCloudZone zone, String uniqueId) {
+        super(zone);
         try {
-            RachioApi.copyMatchingFields(zone, this);
             // this.customSoil = zone.customSoil;
             // this.customSlope = zone.customSlope;
             // this.customCrop = zone.customCrop;
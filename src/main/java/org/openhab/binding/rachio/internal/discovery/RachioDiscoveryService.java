@@ -27,6 +27,7 @@ import org.openhab.binding.rachio.internal.RachioConfiguration;
 import org.openhab.binding.rachio.internal.api.RachioApi;
 import org.openhab.binding.rachio.internal.api.RachioApiException;
 import org.openhab.binding.rachio.internal.api.RachioDevice;
+import org.openhab.binding.rachio.internal.api.RachioRequestGovernor.Priority;
 import org.openhab.binding.rachio.internal.api.RachioZone;
 import org.osgi.service.component.annotations.Activate;
 import org.osgi.service.component.annotations.Component;
@@ -75,6 +76,13 @@ public class RachioDiscoveryService extends AbstractDiscoveryService {
         this.cloudHandler = cloudHandler;
     }
 
+    /**
+     * Called by the bridge when controllers or zones were added or renamed in the Rachio account
+     */
+    public void devicesChanged() {
+        startScan();
+    }
+
     @Override
     protected void startBackgroundDiscovery() {
         logger.debug("Starting background discovery for new Rachio controllers");
@@ -104,7 +112,11 @@ public class RachioDiscoveryService extends AbstractDiscoveryService {
                 }
                 bridgeUID = new ThingUID(BINDING_ID, "cloud", apikey);
                 rachioApi = new RachioApi("");
-                rachioApi.initialize(apikey, bridgeUID);
+                rachioApi.setRequestPriority(Priority.DISCOVERY); // don't use the calls reserved for the bridges
+                rachioApi.setApiUrl(bindingConfig.apiUrl);
+                if (rachioApi.initialize(apikey, bridgeUID)) {
+                    rachioApi.saveSnapshot(); // the bridge created from the inbox could start from it
+                }
                 deviceList = rachioApi.getDevices();
                 if (deviceList != null) {
                     @SuppressWarnings({ "unchecked", "rawtypes" })
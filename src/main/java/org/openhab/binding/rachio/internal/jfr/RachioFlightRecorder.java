@@ -0,0 +1,124 @@
+/**
+ * Copyright (c) 2010-2018 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.rachio.internal.jfr;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The {@link RachioFlightRecorder} emits Java Flight Recorder events for cloud requests, poll cycles and webhook
+ * events. The event classes are shipped in the fragment org.openhab.binding.rachio.jfr (Java 11+, imports jdk.jfr), so
+ * the binding itself stays on Java 8. If the fragment is not attached or the JVM has no Flight Recorder all methods do
+ * nothing. Callers only see this class.
+ *
+ * The begin methods return an opaque handle, null if the event is not enabled in the running recording. Pass it to the
+ * corresponding commit method; a null handle is ignored.
+ *
+ * @author Markus Michels (markus7017) - Initial contribution
+ */
+public class RachioFlightRecorder {
+    public static final String EVENT_PREFIX = "org.openhab.binding.rachio.";
+
+    private static final String RECORDER_CLASS = "org.openhab.binding.rachio.internal.jfr.RachioJfrRecorder";
+
+    /**
+     * Implemented by the fragment, the begin methods return null if the event is not enabled
+     */
+    public interface RachioEventRecorder {
+        Object beginHttpRequest();
+
+        void commitHttpRequest(Object event, String method, String endpoint, int status, long bytes,
+                int rateRemaining);
+
+        Object beginPoll();
+
+        void commitPoll(Object event, String bridge, int devices, int zones, int changes);
+
+        Object beginWebHook();
+
+        void commitWebHook(Object event, String eventType, String deviceId, boolean routed, long parseNanos,
+                long routingNanos, long queueNanos, long handlerNanos);
+    }
+
+    private static final RachioEventRecorder recorder = loadRecorder();
+
+    public static Object beginHttpRequest() {
+        return recorder != null ? recorder.beginHttpRequest() : null;
+    }
+
+    /**
+     * @param event Handle returned by beginHttpRequest()
+     * @param method Http method
+     * @param endpoint Request path with device/zone ids masked
+     * @param status Http response code, 0=no response
+     * @param bytes Size of the response body
+     * @param rateRemaining Remaining api calls, -1 if not returned
+     */
+    public static void commitHttpRequest(Object event, String method, String endpoint, int status, long bytes,
+            int rateRemaining) {
+        if (event != null) {
+            recorder.commitHttpRequest(event, method, endpoint, status, bytes, rateRemaining);
+        }
+    }
+
+    public static Object beginPoll() {
+        return recorder != null ? recorder.beginPoll() : null;
+    }
+
+    /**
+     * @param event Handle returned by beginPoll()
+     * @param bridge Bridge thing id
+     * @param devices Number of devices compared
+     * @param zones Number of zones compared
+     * @param changes Number of devices/zones updated
+     */
+    public static void commitPoll(Object event, String bridge, int devices, int zones, int changes) {
+        if (event != null) {
+            recorder.commitPoll(event, bridge, devices, zones, changes);
+        }
+    }
+
+    public static Object beginWebHook() {
+        return recorder != null ? recorder.beginWebHook() : null;
+    }
+
+    /**
+     * @param event Handle returned by beginWebHook()
+     * @param eventType Type of the Rachio event (e.g. ZONE_STATUS), null if the request couldn't be parsed
+     * @param deviceId Device the event belongs to
+     * @param routed true: event was processed by a thing handler
+     * @param parseNanos Time to read and parse the request
+     * @param routingNanos Time to find bridge and thing handler
+     * @param queueNanos Time the event waited in the bridge's event queue
+     * @param handlerNanos Time spent in the thing handler
+     */
+    public static void commitWebHook(Object event, String eventType, String deviceId, boolean routed,
+            long parseNanos, long routingNanos, long queueNanos, long handlerNanos) {
+        if (event != null) {
+            recorder.commitWebHook(event, eventType, deviceId, routed, parseNanos, routingNanos, queueNanos,
+                    handlerNanos);
+        }
+    }
+
+    private static RachioEventRecorder loadRecorder() {
+        Logger logger = LoggerFactory.getLogger(RachioFlightRecorder.class);
+        try {
+            Class<?> flightRecorder = Class.forName("jdk.jfr.FlightRecorder");
+            boolean available = (Boolean) flightRecorder.getMethod("isAvailable").invoke(null);
+            logger.debug("RachioFlightRecorder: Flight Recorder is {}", available ? "available" : "not available");
+            return available ? (RachioEventRecorder) Class.forName(RECORDER_CLASS).newInstance() : null;
+        } catch (ReflectiveOperationException | LinkageError | RuntimeException e) {
+            logger.debug("RachioFlightRecorder: Flight Recorder events not available (JVM or fragment): {}",
+                    e.toString());
+            return null;
+        }
+    }
+}